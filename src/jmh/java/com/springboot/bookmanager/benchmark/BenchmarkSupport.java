@@ -0,0 +1,59 @@
+package com.springboot.bookmanager.benchmark;
+
+import com.springboot.bookmanager.BookmanagerApplication;
+import com.springboot.bookmanager.models.Book;
+import com.springboot.bookmanager.repo.BookRepo;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Shared fixtures for the benchmarks: a quiet application context and deterministic books.
+ */
+final class BenchmarkSupport {
+
+    private static final Date PUBLISHED = new Date(1704067200000L);
+
+    private BenchmarkSupport() {
+    }
+
+    static ConfigurableApplicationContext startApplication(WebApplicationType webApplicationType, String... properties) {
+        return new SpringApplicationBuilder(BookmanagerApplication.class)
+                .web(webApplicationType)
+                // Every benchmark request comes from one client, which the per-client rate limiter would throttle.
+                .properties("spring.jpa.show-sql=false", "logging.level.root=WARN", "server.port=0",
+                        "bookmanager.rate-limit.enabled=false")
+                .properties(properties)
+                .run();
+    }
+
+    static Book book(long n) {
+        return Book.builder()
+                .title("Benchmark Book " + n)
+                .author("Author " + (n % 1000))
+                .isbn(isbn(n))
+                .publishedDate(PUBLISHED)
+                .price(10.0 + (n % 90))
+                .build();
+    }
+
+    static String isbn(long n) {
+        return "978" + String.format("%010d", n);
+    }
+
+    static void seed(BookRepo bookRepo, int count) {
+        List<Book> batch = new ArrayList<>(1000);
+        for (int i = 0; i < count; i++) {
+            batch.add(book(i));
+            if (batch.size() == 1000) {
+                bookRepo.saveAll(batch);
+                batch.clear();
+            }
+        }
+        bookRepo.saveAll(batch);
+    }
+}
@@ -0,0 +1,101 @@
+package com.springboot.bookmanager.benchmark;
+
+import com.springboot.bookmanager.repo.BookRepo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Full MVC round trip through {@code BookController} (dispatch, service, repository, serialization)
+ * at several catalogue sizes, without the network stack.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookControllerBenchmark {
+
+    @Param({"1000", "100000"})
+    public int catalogueSize;
+
+    private static final int BATCH_SIZE = 200;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startApplication(WebApplicationType.SERVLET);
+        BenchmarkSupport.seed(context.getBean(BookRepo.class), catalogueSize);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, catalogueSize + 1);
+    }
+
+    @Benchmark
+    public MvcResult getBookById() throws Exception {
+        return mockMvc.perform(get("/api/books/{id}", randomId())).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getMissingBook() throws Exception {
+        return mockMvc.perform(get("/api/books/{id}", catalogueSize + randomId())).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getBookByIsbn() throws Exception {
+        return mockMvc.perform(get("/api/books/isbn/{isbn}", BenchmarkSupport.isbn(randomId() - 1))).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getBooksPage() throws Exception {
+        return mockMvc.perform(get("/api/books").param("after", String.valueOf(randomId())).param("limit", "100")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getBooksBatch() throws Exception {
+        return mockMvc.perform(get("/api/books").param("ids", randomIds())).andReturn();
+    }
+
+    // What the batch endpoint replaces: one request per id.
+    @Benchmark
+    public void getBooksOneByOne(Blackhole blackhole) throws Exception {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            blackhole.consume(mockMvc.perform(get("/api/books/{id}", randomId())).andReturn());
+        }
+    }
+
+    private String randomIds() {
+        StringJoiner ids = new StringJoiner(",");
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            ids.add(String.valueOf(randomId()));
+        }
+        return ids.toString();
+    }
+}
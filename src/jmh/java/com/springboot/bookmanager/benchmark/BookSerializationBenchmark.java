@@ -0,0 +1,76 @@
+package com.springboot.bookmanager.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.bookmanager.models.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization cost of a single {@link Book} and of list pages, using the same
+ * ObjectMapper defaults Spring Boot configures for the controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookSerializationBenchmark {
+
+    private static final TypeReference<List<Book>> BOOK_LIST = new TypeReference<>() {
+    };
+
+    @Param({"10", "100", "1000"})
+    public int listSize;
+
+    private ObjectMapper objectMapper;
+    private Book book;
+    private byte[] bookJson;
+    private List<Book> books;
+    private byte[] booksJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        book = BenchmarkSupport.book(1);
+        book.setId(1L);
+        bookJson = objectMapper.writeValueAsBytes(book);
+        books = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            Book listed = BenchmarkSupport.book(i);
+            listed.setId((long) i + 1);
+            books.add(listed);
+        }
+        booksJson = objectMapper.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public byte[] serializeBook() throws IOException {
+        return objectMapper.writeValueAsBytes(book);
+    }
+
+    @Benchmark
+    public Book deserializeBook() throws IOException {
+        return objectMapper.readValue(bookJson, Book.class);
+    }
+
+    @Benchmark
+    public byte[] serializeBookList() throws IOException {
+        return objectMapper.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public List<Book> deserializeBookList() throws IOException {
+        return objectMapper.readValue(booksJson, BOOK_LIST);
+    }
+}
@@ -0,0 +1,85 @@
+package com.springboot.bookmanager.benchmark;
+
+import com.springboot.bookmanager.models.Book;
+import com.springboot.bookmanager.repo.BookRepo;
+import com.springboot.bookmanager.service.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CRUD throughput of {@link BookService} against the embedded H2 database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    public int catalogueSize;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startApplication(WebApplicationType.NONE);
+        bookService = context.getBean(BookService.class);
+        BenchmarkSupport.seed(context.getBean(BookRepo.class), catalogueSize);
+        sequence.set(catalogueSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, catalogueSize + 1);
+    }
+
+    @Benchmark
+    public Optional<Book> getBookById() {
+        return bookService.getBookById(randomId());
+    }
+
+    @Benchmark
+    public List<Book> getBooksAfter() {
+        return bookService.getBooksAfter(randomId(), 100);
+    }
+
+    @Benchmark
+    public Book updateBookById() {
+        Book current = bookService.getBookById(randomId()).orElseThrow();
+        Book book = Book.builder()
+                .title(current.getTitle())
+                .author(current.getAuthor())
+                .isbn(current.getIsbn())
+                .publishedDate(current.getPublishedDate())
+                .price(ThreadLocalRandom.current().nextDouble(1, 100))
+                .build();
+        return bookService.updateBookById(current.getId(), book, null);
+    }
+
+    @Benchmark
+    public boolean saveAndDeleteBook() {
+        Book saved = bookService.saveBook(BenchmarkSupport.book(sequence.incrementAndGet()));
+        return bookService.deleteBook(saved.getId(), null);
+    }
+}
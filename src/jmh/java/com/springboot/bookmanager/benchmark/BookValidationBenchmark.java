@@ -0,0 +1,57 @@
+package com.springboot.bookmanager.benchmark;
+
+import com.springboot.bookmanager.models.Book;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean Validation cost of a {@link Book}, dominated by the ISBN pattern check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BookValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private Book validBook;
+    private Book invalidBook;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validBook = BenchmarkSupport.book(1);
+        invalidBook = BenchmarkSupport.book(2);
+        invalidBook.setIsbn("978-invalid");
+        invalidBook.setPrice(-1.0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Book>> validateValidBook() {
+        return validator.validate(validBook);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Book>> validateInvalidBook() {
+        return validator.validate(invalidBook);
+    }
+}
@@ -0,0 +1,84 @@
+package com.springboot.bookmanager.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.springboot.bookmanager.dto.BookView;
+import com.springboot.bookmanager.models.Book;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization time of a list page as entities versus {@link BookView} projections, in JSON, Smile and
+ * CBOR. The payload size of each variant is reported as the {@code bytes} secondary metric (benchmark threads = 1).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookWireFormatBenchmark {
+
+    @Param({"100", "1000"})
+    public int listSize;
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    private ObjectMapper objectMapper;
+    private List<Book> books;
+    private List<BookView> views;
+
+    // Holds the size of the last payload rather than a running total, so it reads as bytes per page.
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public long bytes;
+    }
+
+    @Setup
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if ("smile".equals(format)) {
+            builder.factory(new SmileFactory());
+        } else if ("cbor".equals(format)) {
+            builder.factory(new CBORFactory());
+        }
+        objectMapper = builder.build();
+        books = new ArrayList<>(listSize);
+        views = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            Book book = BenchmarkSupport.book(i);
+            book.setId((long) i + 1);
+            book.setVersion(0L);
+            books.add(book);
+            views.add(new BookView(book.getId(), book.getTitle(), book.getAuthor(), book.getPublishedDate(),
+                    book.getIsbn(), book.getPrice(), book.getVersion()));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeEntities(PayloadSize size) throws IOException {
+        byte[] payload = objectMapper.writeValueAsBytes(books);
+        size.bytes = payload.length;
+        return payload;
+    }
+
+    @Benchmark
+    public byte[] serializeViews(PayloadSize size) throws IOException {
+        byte[] payload = objectMapper.writeValueAsBytes(views);
+        size.bytes = payload.length;
+        return payload;
+    }
+}
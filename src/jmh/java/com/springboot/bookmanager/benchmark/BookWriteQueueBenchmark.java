@@ -0,0 +1,66 @@
+package com.springboot.bookmanager.benchmark;
+
+import com.springboot.bookmanager.dto.WriteTicketDto;
+import com.springboot.bookmanager.writes.BookWriteQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time to commit a burst of creates through the {@link BookWriteQueue}, from the first submit until the
+ * last ticket leaves PENDING, at several batch sizes. A batch size of 1 is one transaction per write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BookWriteQueueBenchmark {
+
+    private static final int BURST = 2000;
+
+    @Param({"1", "50", "500"})
+    public int maxBatch;
+
+    private ConfigurableApplicationContext context;
+    private BookWriteQueue bookWriteQueue;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startApplication(WebApplicationType.NONE,
+                "bookmanager.async-writes.enabled=true",
+                "bookmanager.async-writes.max-batch=" + maxBatch,
+                "bookmanager.async-writes.queue-capacity=" + BURST,
+                "bookmanager.async-writes.flush-interval=5ms");
+        bookWriteQueue = context.getBean(BookWriteQueue.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public WriteTicketDto writeBurst() throws InterruptedException {
+        WriteTicketDto last = null;
+        for (int i = 0; i < BURST; i++) {
+            last = bookWriteQueue.submitCreate(BenchmarkSupport.book(sequence.incrementAndGet()));
+        }
+        WriteTicketDto status;
+        while ((status = bookWriteQueue.status(last.getTicket()).orElseThrow()).getStatus() == WriteTicketDto.Status.PENDING) {
+            Thread.sleep(1);
+        }
+        return status;
+    }
+}
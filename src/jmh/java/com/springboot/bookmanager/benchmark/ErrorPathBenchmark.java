@@ -0,0 +1,90 @@
+package com.springboot.bookmanager.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.bookmanager.exception.BookNotFoundException;
+import com.springboot.bookmanager.exception.Problems;
+import jakarta.persistence.EntityNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of answering a request for a book that does not exist.
+ * <p>
+ * The {@code legacy*} benchmarks reproduce the former miss path: a new {@link EntityNotFoundException}
+ * thrown from {@code stackDepth} frames down, caught, and turned into the old error body with
+ * {@code LocalDateTime.now().toString()} and {@code String.valueOf(HttpStatus)}. The {@code stackless*}
+ * and {@code optional*} benchmarks are the current paths: throwing the preallocated
+ * {@link BookNotFoundException}, and building the problem detail with no exception at all. The
+ * end-to-end miss is {@code BookControllerBenchmark.getMissingBook}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ErrorPathBenchmark {
+
+    @Param({"20", "120"})
+    public int stackDepth;
+
+    private ObjectMapper objectMapper;
+
+    // Shape of the error body before problem details were introduced.
+    public static class LegacyErrorBody {
+        public String errorCode;
+        public String timestamp;
+        public String message;
+    }
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    private static void throwAt(int depth, RuntimeException prebuilt) {
+        if (depth > 0) {
+            throwAt(depth - 1, prebuilt);
+            return;
+        }
+        throw prebuilt != null ? prebuilt : new EntityNotFoundException("Book Not Found");
+    }
+
+    @Benchmark
+    public byte[] legacyThrowAndRender() throws IOException {
+        try {
+            throwAt(stackDepth, null);
+            return null;
+        } catch (EntityNotFoundException ex) {
+            LegacyErrorBody body = new LegacyErrorBody();
+            body.message = "Entity not found: " + ex.getMessage();
+            body.timestamp = LocalDateTime.now().toString();
+            body.errorCode = String.valueOf(HttpStatus.NOT_FOUND);
+            return objectMapper.writeValueAsBytes(body);
+        }
+    }
+
+    @Benchmark
+    public byte[] stacklessThrowAndRender() throws IOException {
+        try {
+            throwAt(stackDepth, BookNotFoundException.INSTANCE);
+            return null;
+        } catch (EntityNotFoundException ex) {
+            return objectMapper.writeValueAsBytes(Problems.of(HttpStatus.NOT_FOUND, "Entity not found", ex.getMessage()));
+        }
+    }
+
+    @Benchmark
+    public byte[] optionalRender() throws IOException {
+        return objectMapper.writeValueAsBytes(Problems.of(HttpStatus.NOT_FOUND, "Entity not found", "Book Not Found"));
+    }
+}
@@ -0,0 +1,62 @@
+package com.springboot.bookmanager.benchmark;
+
+import com.springboot.bookmanager.models.Book;
+import com.springboot.bookmanager.repo.BookRepo;
+import com.springboot.bookmanager.service.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the {@code @Timed} service instrumentation on the cheapest hot path (a cached
+ * {@code getBookById}), with and without annotation-driven timers, under multi-threaded load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(8)
+public class InstrumentationOverheadBenchmark {
+
+    private static final int CATALOGUE_SIZE = 1000;
+
+    @Param({"false", "true"})
+    public boolean instrumented;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startApplication(WebApplicationType.NONE,
+                "management.observations.annotations.enabled=" + instrumented);
+        bookService = context.getBean(BookService.class);
+        BenchmarkSupport.seed(context.getBean(BookRepo.class), CATALOGUE_SIZE);
+        for (long id = 1; id <= CATALOGUE_SIZE; id++) {
+            bookService.getBookById(id);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Book> cachedGetBookById() {
+        return bookService.getBookById(ThreadLocalRandom.current().nextLong(1, CATALOGUE_SIZE + 1));
+    }
+}
@@ -0,0 +1,147 @@
+package com.springboot.bookmanager.benchmark;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+/**
+ * Cold start of the packaged application, one fresh JVM per run: time until the health endpoint answers,
+ * time until the first page of books is served (which includes whatever lazy initialization deferred),
+ * and resident memory at that point. Compares the default configuration, the {@code prod} profile and
+ * the {@code prod} profile with the CDS archive.
+ * <p>
+ * Run with {@code ./gradlew startupBenchmark [-PstartupRuns=N]}; every run is appended to
+ * {@code build/reports/startup/results.csv} so results can be tracked across builds. Memory is read from
+ * procfs and reported as -1 where there is none.
+ */
+public final class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private record Variant(String name, List<String> jvmArgs, List<String> appArgs) {
+    }
+
+    private record Sample(long readyMillis, long firstRequestMillis, long rssKilobytes) {
+    }
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(args[0]);
+        Path archive = Path.of(args[1]);
+        Path results = Path.of(args[2]);
+        int runs = Integer.parseInt(args[3]);
+        List<Variant> variants = List.of(
+                new Variant("default", List.of(), List.of()),
+                new Variant("prod", List.of(), List.of("--spring.profiles.active=prod")),
+                new Variant("prod+cds", List.of("-XX:SharedArchiveFile=" + archive), List.of("--spring.profiles.active=prod")));
+
+        Files.createDirectories(results.getParent());
+        boolean newFile = Files.notExists(results);
+        String timestamp = Instant.now().toString();
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(results, CREATE, APPEND))) {
+            if (newFile) {
+                out.println("timestamp,variant,run,ready_ms,first_request_ms,rss_kb");
+            }
+            for (Variant variant : variants) {
+                List<Sample> samples = new ArrayList<>(runs);
+                for (int run = 0; run < runs; run++) {
+                    Sample sample = launch(jar, variant);
+                    samples.add(sample);
+                    out.printf("%s,%s,%d,%d,%d,%d%n", timestamp, variant.name(), run,
+                            sample.readyMillis(), sample.firstRequestMillis(), sample.rssKilobytes());
+                }
+                System.out.printf("%-9s ready %6d ms   first request %6d ms   rss %7d KB   (median of %d)%n",
+                        variant.name(), median(samples, Sample::readyMillis), median(samples, Sample::firstRequestMillis),
+                        median(samples, Sample::rssKilobytes), runs);
+            }
+        }
+    }
+
+    private static Sample launch(Path jar, Variant variant) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(variant.jvmArgs());
+        command.add("-jar");
+        command.add(jar.getFileName().toString());
+        command.add("--server.port=" + port);
+        command.add("--logging.level.root=WARN");
+        command.addAll(variant.appArgs());
+
+        HttpClient client = HttpClient.newHttpClient();
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(jar.toAbsolutePath().getParent().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            long ready = awaitOk(client, process, started, URI.create("http://localhost:" + port + "/actuator/health"));
+            long firstRequest = awaitOk(client, process, started, URI.create("http://localhost:" + port + "/api/books?limit=1"));
+            return new Sample(ready, firstRequest, rssKilobytes(process.pid()));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static long awaitOk(HttpClient client, Process process, long started, URI uri) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(10)).build();
+        while (System.nanoTime() - started < TIMEOUT.toNanos()) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with status " + process.exitValue());
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                }
+            } catch (IOException e) {
+                // Not listening yet.
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("Application did not answer " + uri + " within " + TIMEOUT);
+    }
+
+    private static long rssKilobytes(long pid) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (Files.notExists(status)) {
+            return -1;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        return -1;
+    }
+
+    private static long median(List<Sample> samples, ToLongFunction<Sample> metric) {
+        long[] values = samples.stream().mapToLong(metric).toArray();
+        Arrays.sort(values);
+        return values[values.length / 2];
+    }
+}
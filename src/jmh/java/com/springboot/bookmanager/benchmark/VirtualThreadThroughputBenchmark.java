@@ -0,0 +1,89 @@
+package com.springboot.bookmanager.benchmark;
+
+import com.springboot.bookmanager.repo.BookRepo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test comparing request throughput of the platform-thread setup against the
+ * {@code virtual-threads} profile. Each invocation fires a burst of concurrent HTTP requests at a real
+ * embedded Tomcat and waits for all of them, so results are requests per second under a burst larger
+ * than the Tomcat worker pool. Note that the in-memory H2 database answers without I/O waits, which
+ * understates the gain seen against a networked database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(VirtualThreadThroughputBenchmark.BURST)
+public class VirtualThreadThroughputBenchmark {
+
+    static final int BURST = 512;
+    private static final int CATALOGUE_SIZE = 10_000;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startApplication(WebApplicationType.SERVLET,
+                "spring.profiles.active=" + (virtualThreads ? "virtual-threads" : "default"),
+                "server.tomcat.threads.max=32");
+        BenchmarkSupport.seed(context.getBean(BookRepo.class), CATALOGUE_SIZE);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api/books";
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        httpClient = HttpClient.newBuilder().executor(clientExecutor).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clientExecutor.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int burst() {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(BURST);
+        for (int i = 0; i < BURST; i++) {
+            long after = ThreadLocalRandom.current().nextLong(CATALOGUE_SIZE);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "?limit=20&after=" + after)).GET().build();
+            responses.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        int ok = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() == 200) {
+                ok++;
+            }
+        }
+        return ok;
+    }
+}
@@ -0,0 +1,103 @@
+package com.springboot.bookmanager.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.bookmanager.models.Book;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Issues one {@link Operation} against the API over HTTP and returns the status code.
+ */
+final class BookApiClient {
+
+    private static final int HOT_BOOKS = 8;
+    private static final Date PUBLISHED = new Date(1704067200000L);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final URI books;
+    private final long[] seededIds;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong created = new AtomicLong();
+
+    BookApiClient(URI baseUri, long[] seededIds, ObjectMapper objectMapper) {
+        this.books = baseUri.resolve("/api/books");
+        this.seededIds = seededIds;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Books created by the workload so far.
+     */
+    long created() {
+        return created.get();
+    }
+
+    int execute(Operation operation) throws IOException, InterruptedException {
+        HttpRequest request = switch (operation) {
+            case GET_BY_ID -> get("/" + randomId());
+            case LIST_PAGE -> get("?limit=100&after=" + randomId());
+            case CREATE -> HttpRequest.newBuilder(books)
+                    .header("Content-Type", "application/json")
+                    .POST(json(book("Load Book " + ThreadLocalRandom.current().nextLong(Long.MAX_VALUE))))
+                    .build();
+            case UPDATE -> put(randomId());
+            case UPDATE_HOT -> put(seededIds[ThreadLocalRandom.current().nextInt(Math.min(HOT_BOOKS, seededIds.length))]);
+        };
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (operation == Operation.CREATE && status == 201) {
+            created.incrementAndGet();
+        }
+        return status;
+    }
+
+    private long randomId() {
+        return seededIds[ThreadLocalRandom.current().nextInt(seededIds.length)];
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(books + path)).GET().build();
+    }
+
+    // No version and no If-Match: the update is unconditional, so concurrent ones only collide on the row lock
+    // and the version check at flush.
+    private HttpRequest put(long id) {
+        return HttpRequest.newBuilder(URI.create(books + "/" + id))
+                .header("Content-Type", "application/json")
+                .PUT(json(book("Updated Book " + id)))
+                .build();
+    }
+
+    private Book book(String title) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Book.builder()
+                .title(title)
+                .author("Load Author " + random.nextInt(1000))
+                .isbn("979" + String.format("%010d", random.nextLong(10_000_000_000L)))
+                .publishedDate(PUBLISHED)
+                .price(random.nextInt(100, 10000) / 100.0)
+                .build();
+    }
+
+    private HttpRequest.BodyPublisher json(Book book) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(book));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
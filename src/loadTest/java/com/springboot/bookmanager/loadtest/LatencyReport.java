@@ -0,0 +1,171 @@
+package com.springboot.bookmanager.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counts per {@link Operation}. Request threads record into HdrHistogram
+ * {@link Recorder}s; {@link #interval} is called from a single reporting thread, which folds each
+ * interval into the run totals and appends it to the timeline.
+ */
+final class LatencyReport {
+
+    private static final long HIGHEST_TRACKABLE = TimeUnit.MINUTES.toNanos(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    // Below this, a p50 or p99 difference is scheduler noise rather than a regression.
+    private static final double ABSOLUTE_SLACK_MILLIS = 1.0;
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> totals = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> conflicts = new EnumMap<>(Operation.class);
+    private final List<String> timeline = new ArrayList<>();
+    private Histogram recycled;
+
+    LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(HIGHEST_TRACKABLE, SIGNIFICANT_DIGITS));
+            totals.put(operation, new Histogram(HIGHEST_TRACKABLE, SIGNIFICANT_DIGITS));
+            errors.put(operation, new LongAdder());
+            conflicts.put(operation, new LongAdder());
+        }
+        timeline.add("elapsed_s,catalogue_size,operation,count,p50_ms,p99_ms,max_ms");
+    }
+
+    /**
+     * @param latencyNanos measured from when the request was due, not from when it was sent
+     */
+    void record(Operation operation, long latencyNanos, int status) {
+        recorders.get(operation).recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE));
+        if (status == 409 || status == 412) {
+            conflicts.get(operation).increment();
+        } else if (status >= 400) {
+            errors.get(operation).increment();
+        }
+    }
+
+    void error(Operation operation, long latencyNanos) {
+        record(operation, latencyNanos, 599);
+    }
+
+    /**
+     * Drops everything recorded so far, e.g. after warm-up.
+     */
+    void reset() {
+        for (Operation operation : Operation.values()) {
+            recycled = recorders.get(operation).getIntervalHistogram(recycled);
+            totals.get(operation).reset();
+            errors.get(operation).reset();
+            conflicts.get(operation).reset();
+        }
+    }
+
+    void interval(long elapsedSeconds, long catalogueSize) {
+        for (Operation operation : Operation.values()) {
+            recycled = recorders.get(operation).getIntervalHistogram(recycled);
+            if (recycled.getTotalCount() == 0) {
+                continue;
+            }
+            totals.get(operation).add(recycled);
+            timeline.add(String.format("%d,%d,%s,%d,%.3f,%.3f,%.3f", elapsedSeconds, catalogueSize, operation,
+                    recycled.getTotalCount(), millis(recycled.getValueAtPercentile(50)),
+                    millis(recycled.getValueAtPercentile(99)), millis(recycled.getMaxValue())));
+        }
+    }
+
+    LoadTestSummary summarize(LoadTestConfig config, double elapsedSeconds) {
+        Map<Operation, LoadTestSummary.OperationSummary> operations = new EnumMap<>(Operation.class);
+        long requests = 0;
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = totals.get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            requests += histogram.getTotalCount();
+            operations.put(operation, new LoadTestSummary.OperationSummary(
+                    histogram.getTotalCount(),
+                    errors.get(operation).sum(),
+                    conflicts.get(operation).sum(),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())));
+        }
+        return new LoadTestSummary(config.profile(), config.rate(), config.catalogueSize(),
+                requests / elapsedSeconds, operations);
+    }
+
+    /**
+     * Writes the timeline and one HdrHistogram percentile distribution ({@code .hgrm}) per operation.
+     */
+    void write(Path directory, String prefix) throws IOException {
+        Files.createDirectories(directory);
+        Files.write(directory.resolve(prefix + "-timeline.csv"), timeline);
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = totals.get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            Path file = directory.resolve(prefix + "-" + operation.name().toLowerCase() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                // Output values in milliseconds.
+                histogram.outputPercentileDistribution(out, 1_000_000.0);
+            }
+        }
+    }
+
+    /**
+     * @return one line per p50 or p99 that is worse than the baseline by more than {@code threshold},
+     * and per operation whose error rate exceeds {@code maxErrorRate}
+     */
+    static List<String> regressions(LoadTestSummary current, LoadTestSummary baseline, double threshold, double maxErrorRate) {
+        List<String> regressions = new ArrayList<>();
+        current.operations().forEach((operation, summary) -> {
+            double errorRate = (double) summary.errors() / summary.count();
+            if (errorRate > maxErrorRate) {
+                regressions.add(String.format("%s error rate %.2f%% exceeds %.2f%%", operation, errorRate * 100, maxErrorRate * 100));
+            }
+            LoadTestSummary.OperationSummary base = baseline == null ? null : baseline.operations().get(operation);
+            if (base != null) {
+                check(regressions, operation + " p50", summary.p50Millis(), base.p50Millis(), threshold);
+                check(regressions, operation + " p99", summary.p99Millis(), base.p99Millis(), threshold);
+            }
+        });
+        return regressions;
+    }
+
+    private static void check(List<String> regressions, String metric, double current, double baseline, double threshold) {
+        double limit = Math.max(baseline * (1 + threshold), baseline + ABSOLUTE_SLACK_MILLIS);
+        if (current > limit) {
+            regressions.add(String.format("%s %.3f ms exceeds baseline %.3f ms by more than %.0f%%",
+                    metric, current, baseline, threshold * 100));
+        }
+    }
+
+    static void print(LoadTestSummary summary, PrintWriter out) {
+        out.printf("%-11s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "conflicts", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        summary.operations().forEach((operation, s) -> out.printf("%-11s %9d %7d %9d %9.3f %9.3f %9.3f %9.3f %9.3f%n",
+                operation, s.count(), s.errors(), s.conflicts(), s.p50Millis(), s.p90Millis(), s.p99Millis(),
+                s.p999Millis(), s.maxMillis()));
+        out.printf("achieved %.1f requests/s%n", summary.achievedRate());
+        out.flush();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,46 @@
+package com.springboot.bookmanager.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Load test settings, read from {@code loadtest.*} system properties (see the {@code loadTest} task).
+ *
+ * @param rate           requests per second, issued on schedule whether or not earlier ones have completed
+ * @param catalogueSize  books imported before the run
+ * @param threshold      relative p50/p99 increase over the baseline that fails the run
+ * @param maxErrorRate   share of failed requests per operation that fails the run; 409 and 412 do not count
+ */
+record LoadTestConfig(WorkloadProfile profile, int rate, Duration warmup, Duration duration, int catalogueSize,
+                      Duration reportInterval, double threshold, double maxErrorRate, Path reportDir,
+                      Path baselineDir, boolean updateBaseline) {
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                WorkloadProfile.valueOf(property("profile", "mixed").toUpperCase(Locale.ROOT)),
+                Integer.parseInt(property("rate", "1000")),
+                DurationStyle.detectAndParse(property("warmup", "10s")),
+                DurationStyle.detectAndParse(property("duration", "30s")),
+                Integer.parseInt(property("catalogue", "10000")),
+                DurationStyle.detectAndParse(property("reportInterval", "5s")),
+                Double.parseDouble(property("threshold", "0.2")),
+                Double.parseDouble(property("maxErrorRate", "0.01")),
+                Path.of(property("reportDir", "build/reports/loadtest")),
+                Path.of(property("baselineDir", "src/loadTest/baselines")),
+                Boolean.parseBoolean(property("updateBaseline", "false")));
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+
+    /**
+     * Baselines are kept per profile, catalogue size and rate, since all three change the latencies.
+     */
+    String name() {
+        return profile.name().toLowerCase(Locale.ROOT) + "-" + catalogueSize + "-" + rate + "rps";
+    }
+}
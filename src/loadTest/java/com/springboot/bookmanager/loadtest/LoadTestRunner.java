@@ -0,0 +1,178 @@
+package com.springboot.bookmanager.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.springboot.bookmanager.BookmanagerApplication;
+import com.springboot.bookmanager.dto.BulkImportResultDto;
+import com.springboot.bookmanager.models.Book;
+import com.springboot.bookmanager.service.BookImportService;
+import com.springboot.bookmanager.service.BookService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Starts the application on a random port, imports a catalogue, then drives the API with a
+ * {@link WorkloadProfile} at a constant request rate and reports latencies.
+ * <p>
+ * The load is open: requests are issued on a fixed schedule, each on its own virtual thread, and latency
+ * is measured from when a request was due. A slow server therefore shows up as queueing delay in the
+ * percentiles instead of silently lowering the offered rate.
+ * <p>
+ * Writes a summary, the per-interval timeline and HdrHistogram distributions to the report directory,
+ * then compares the summary with the stored baseline and exits with status 1 on a regression.
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BookmanagerApplication.class)
+                .web(WebApplicationType.SERVLET)
+                // One client sends everything, which the per-client rate limiter would throttle.
+                .properties("server.port=0", "spring.jpa.show-sql=false", "logging.level.root=WARN",
+                        "bookmanager.rate-limit.enabled=false")
+                .run(args);
+        int status;
+        try {
+            status = run(config, context);
+        } finally {
+            context.close();
+        }
+        System.exit(status);
+    }
+
+    private static int run(LoadTestConfig config, ConfigurableApplicationContext context) throws Exception {
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        long[] ids = seed(context, objectMapper, config.catalogueSize());
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        BookApiClient api = new BookApiClient(URI.create("http://localhost:" + port), ids, objectMapper);
+        LatencyReport report = new LatencyReport();
+        PrintWriter console = new PrintWriter(System.out, true);
+
+        console.printf("%s: %d books, %d requests/s, %s warm-up, %s measured%n", config.profile(), ids.length,
+                config.rate(), config.warmup(), config.duration());
+        drive(config, api, report, config.warmup(), null);
+        report.reset();
+        long started = System.nanoTime();
+        drive(config, api, report, config.duration(), () -> report.interval(
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started), ids.length + api.created()));
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        LoadTestSummary summary = report.summarize(config, elapsedSeconds);
+        LatencyReport.print(summary, console);
+        ObjectMapper json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        report.write(config.reportDir(), config.name());
+        json.writeValue(config.reportDir().resolve(config.name() + "-summary.json").toFile(), summary);
+
+        Path baselineFile = config.baselineDir().resolve(config.name() + ".json");
+        if (config.updateBaseline()) {
+            Files.createDirectories(config.baselineDir());
+            json.writeValue(baselineFile.toFile(), summary);
+            console.printf("Recorded baseline %s%n", baselineFile);
+            return 0;
+        }
+        LoadTestSummary baseline = null;
+        if (Files.exists(baselineFile)) {
+            baseline = json.readValue(baselineFile.toFile(), LoadTestSummary.class);
+        } else {
+            console.printf("No baseline at %s; run with -PloadUpdateBaseline=true to record one%n", baselineFile);
+        }
+        List<String> regressions = LatencyReport.regressions(summary, baseline, config.threshold(), config.maxErrorRate());
+        regressions.forEach(regression -> console.println("REGRESSION " + regression));
+        return regressions.isEmpty() ? 0 : 1;
+    }
+
+    /**
+     * Issues requests at {@code config.rate()} for {@code duration}, then waits for the ones still in
+     * flight. {@code onInterval}, if given, runs every report interval and once more at the end.
+     */
+    private static void drive(LoadTestConfig config, BookApiClient api, LatencyReport report, Duration duration,
+                              Runnable onInterval) throws InterruptedException {
+        long period = TimeUnit.SECONDS.toNanos(1) / config.rate();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        if (onInterval != null) {
+            long interval = config.reportInterval().toNanos();
+            reporter.scheduleAtFixedRate(onInterval, interval, interval, TimeUnit.NANOSECONDS);
+        }
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long due = start; due < end; due += period) {
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long scheduled = due;
+                requests.execute(() -> {
+                    Operation operation = config.profile().next();
+                    try {
+                        int status = api.execute(operation);
+                        report.record(operation, System.nanoTime() - scheduled, status);
+                    } catch (IOException e) {
+                        report.error(operation, System.nanoTime() - scheduled);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+        } finally {
+            reporter.shutdown();
+            reporter.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        if (onInterval != null) {
+            onInterval.run();
+        }
+    }
+
+    /**
+     * Imports the catalogue through the bulk import path, so the search index, statistics and change
+     * log see it as well, and returns the ids of all books.
+     */
+    private static long[] seed(ConfigurableApplicationContext context, ObjectMapper objectMapper, int count) throws IOException {
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        Date published = new Date(1704067200000L);
+        for (int i = 0; i < count; i++) {
+            Book book = Book.builder()
+                    .title("Seed Book " + i)
+                    .author("Seed Author " + (i % 1000))
+                    .isbn("978" + String.format("%010d", i))
+                    .publishedDate(published)
+                    .price(10.0 + (i % 90))
+                    .build();
+            objectMapper.writeValue(ndjson, book);
+            ndjson.write('\n');
+        }
+        BulkImportResultDto result = context.getBean(BookImportService.class)
+                .importBooks(new ByteArrayInputStream(ndjson.toByteArray()));
+        if (!result.getErrors().isEmpty()) {
+            throw new IllegalStateException("Seeding failed: " + result.getErrors().get(0).getMessage());
+        }
+        List<Long> ids = new ArrayList<>(count);
+        context.getBean(BookService.class).streamAllBooks(book -> ids.add(book.getId()));
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("The load test needs a catalogue of at least one book");
+        }
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -0,0 +1,14 @@
+package com.springboot.bookmanager.loadtest;
+
+import java.util.Map;
+
+/**
+ * Result of one load test run, also the format of the stored baselines.
+ */
+record LoadTestSummary(WorkloadProfile profile, int rate, int catalogueSize, double achievedRate,
+                       Map<Operation, OperationSummary> operations) {
+
+    record OperationSummary(long count, long errors, long conflicts, double p50Millis, double p90Millis,
+                            double p99Millis, double p999Millis, double maxMillis) {
+    }
+}
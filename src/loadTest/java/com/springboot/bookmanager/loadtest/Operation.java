@@ -0,0 +1,17 @@
+package com.springboot.bookmanager.loadtest;
+
+/**
+ * The requests a workload is made of.
+ */
+enum Operation {
+    /** {@code GET /api/books/{id}} of a random seeded book. */
+    GET_BY_ID,
+    /** {@code GET /api/books?after=&limit=100} from a random cursor. */
+    LIST_PAGE,
+    /** {@code POST /api/books}, growing the catalogue. */
+    CREATE,
+    /** {@code PUT /api/books/{id}} of a random seeded book. */
+    UPDATE,
+    /** {@code PUT /api/books/{id}} of one of a few hot books, so concurrent updates collide. */
+    UPDATE_HOT
+}
@@ -0,0 +1,33 @@
+package com.springboot.bookmanager.loadtest;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Request mixes, as percentages per {@link Operation}.
+ */
+enum WorkloadProfile {
+    READ(Map.of(Operation.GET_BY_ID, 90, Operation.LIST_PAGE, 10)),
+    WRITE(Map.of(Operation.CREATE, 70, Operation.UPDATE, 30)),
+    LIST(Map.of(Operation.LIST_PAGE, 100)),
+    MIXED(Map.of(Operation.GET_BY_ID, 60, Operation.LIST_PAGE, 15, Operation.CREATE, 15, Operation.UPDATE, 10)),
+    CONTENTION(Map.of(Operation.UPDATE_HOT, 80, Operation.GET_BY_ID, 20));
+
+    private final Operation[] slots = new Operation[100];
+
+    WorkloadProfile(Map<Operation, Integer> weights) {
+        int slot = 0;
+        for (Operation operation : Operation.values()) {
+            for (int i = 0; i < weights.getOrDefault(operation, 0); i++) {
+                slots[slot++] = operation;
+            }
+        }
+        if (slot != slots.length) {
+            throw new IllegalStateException(name() + " weights add up to " + slot + ", not 100");
+        }
+    }
+
+    Operation next() {
+        return slots[ThreadLocalRandom.current().nextInt(slots.length)];
+    }
+}
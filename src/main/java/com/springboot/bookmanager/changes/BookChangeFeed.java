@@ -0,0 +1,176 @@
+package com.springboot.bookmanager.changes;
+
+import com.springboot.bookmanager.dto.BookChangeDto;
+import com.springboot.bookmanager.dto.BookChangePageDto;
+import com.springboot.bookmanager.event.BookChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers the {@link BookChangeLog} to consumers, either as long-polled pages or as a Server-Sent
+ * Events stream.
+ * <p>
+ * Delivery is pull-based: a commit only wakes the waiting consumers, and each one then reads its next
+ * batch from the log starting at its own cursor. Nothing is buffered per subscriber, so a slow SSE
+ * client only holds up its own pump, which blocks on the socket and resumes from the log where it left
+ * off.
+ */
+@Component
+public class BookChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(BookChangeFeed.class);
+
+    @Autowired
+    private BookChangeLog bookChangeLog;
+
+    @Value("${bookmanager.changes.batch-size}")
+    private int batchSize;
+
+    @Value("${bookmanager.changes.stream-timeout}")
+    private Duration streamTimeout;
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Set<LongPoll> longPolls = ConcurrentHashMap.newKeySet();
+    // Each pump spends most of its time blocked on a client socket, which is what virtual threads are for.
+    private final ExecutorService pumps = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Returns the changes after {@code since}. When there are none and {@code wait} is positive, the
+     * result is held open until a change commits or the wait runs out.
+     */
+    public DeferredResult<BookChangePageDto> poll(long since, int limit, Duration wait) {
+        DeferredResult<BookChangePageDto> result = new DeferredResult<>(wait.toMillis(), page(since, List.of()));
+        List<BookChangeDto> changes = bookChangeLog.changesSince(since, limit);
+        if (!changes.isEmpty() || wait.isZero()) {
+            result.setResult(page(since, changes));
+            return result;
+        }
+        LongPoll longPoll = new LongPoll(result, since, limit);
+        longPolls.add(longPoll);
+        result.onCompletion(() -> longPolls.remove(longPoll));
+        // A change may have committed between the read above and the registration.
+        longPoll.signal();
+        return result;
+    }
+
+    public SseEmitter subscribe(long since) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        Subscription subscription = new Subscription(emitter, since);
+        subscriptions.add(subscription);
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscriptions.remove(subscription));
+        subscription.signal();
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        longPolls.forEach(LongPoll::signal);
+        subscriptions.forEach(Subscription::signal);
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size() + longPolls.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.forEach(subscription -> subscription.emitter.complete());
+        pumps.shutdownNow();
+    }
+
+    private BookChangePageDto page(long since, List<BookChangeDto> changes) {
+        long lastSeq = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq();
+        return BookChangePageDto.builder().changes(changes).lastSeq(lastSeq).build();
+    }
+
+    private final class LongPoll {
+        private final DeferredResult<BookChangePageDto> result;
+        private final long since;
+        private final int limit;
+
+        private LongPoll(DeferredResult<BookChangePageDto> result, long since, int limit) {
+            this.result = result;
+            this.since = since;
+            this.limit = limit;
+        }
+
+        private void signal() {
+            if (result.isSetOrExpired()) {
+                return;
+            }
+            pumps.execute(() -> {
+                List<BookChangeDto> changes = bookChangeLog.changesSince(since, limit);
+                if (!changes.isEmpty()) {
+                    result.setResult(page(since, changes));
+                }
+            });
+        }
+    }
+
+    private final class Subscription {
+        private final SseEmitter emitter;
+        private final AtomicBoolean pumping = new AtomicBoolean();
+        private volatile boolean pending;
+        private long cursor;
+
+        private Subscription(SseEmitter emitter, long since) {
+            this.emitter = emitter;
+            this.cursor = since;
+        }
+
+        // Coalesces wake-ups: at most one pump runs per subscriber, and a signal that arrives while it
+        // runs makes it go round once more instead of starting a second one.
+        private void signal() {
+            pending = true;
+            if (pumping.compareAndSet(false, true)) {
+                pumps.execute(this::pump);
+            }
+        }
+
+        private void pump() {
+            try {
+                do {
+                    pending = false;
+                    drain();
+                    pumping.set(false);
+                } while (pending && pumping.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping change feed subscriber: {}", e.getMessage());
+                subscriptions.remove(this);
+                emitter.completeWithError(e);
+            }
+        }
+
+        private void drain() throws IOException {
+            List<BookChangeDto> batch;
+            do {
+                batch = bookChangeLog.changesSince(cursor, batchSize);
+                for (BookChangeDto change : batch) {
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(change.getSeq()))
+                            .name(change.getType().name().toLowerCase())
+                            .data(change));
+                    cursor = change.getSeq();
+                }
+            } while (batch.size() == batchSize);
+        }
+    }
+}
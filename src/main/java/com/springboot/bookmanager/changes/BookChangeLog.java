@@ -0,0 +1,163 @@
+package com.springboot.bookmanager.changes;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.bookmanager.dto.BookChangeDto;
+import com.springboot.bookmanager.event.BookChangedEvent;
+import com.springboot.bookmanager.models.Book;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Outbox of book mutations. Every {@link BookChangedEvent} is appended to {@code book_change} while the
+ * publishing transaction is still open, so a change is logged if and only if it commits.
+ * <p>
+ * The changes of a transaction are collected as they are published and written just before it commits:
+ * one bump of the {@code book_change_counter} row for all of them, then one batch insert, so a bulk
+ * import chunk costs two statements rather than two per book. The counter row's lock is held from then
+ * until the commit. Writers therefore commit in sequence order and a reader polling with
+ * {@code seq > since} never misses a change that commits later with a lower number.
+ */
+@Component
+public class BookChangeLog {
+
+    private static final String INSERT_CHANGE = "INSERT INTO book_change (seq, book_id, change_type, changed_at, payload) "
+            + "VALUES (?, ?, ?, ?, ?)";
+
+    /**
+     * Validator for the catalogue as a whole: it changes with every committed write. Built from persisted
+     * state only, so every node and every restart hands out the same tag for the same data. The time of
+     * the latest change is part of the tag, so a database that was recreated and has reached the same
+     * sequence number again does not match tags from before.
+     */
+    public record CatalogueVersion(long seq, long lastModified) {
+
+        public String eTag() {
+            return "\"" + seq + "-" + lastModified + "\"";
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final RowMapper<BookChangeDto> rowMapper = (rs, rowNum) -> {
+        String payload = rs.getString("payload");
+        return BookChangeDto.builder()
+                .seq(rs.getLong("seq"))
+                .bookId(rs.getLong("book_id"))
+                .type(BookChangedEvent.Type.valueOf(rs.getString("change_type")))
+                .changedAt(rs.getTimestamp("changed_at"))
+                .book(payload == null ? null : readBook(payload))
+                .build();
+    };
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(BookChangedEvent event) {
+        // Serialized now, so the payload is the book as published even if the entity changes later on.
+        String payload = event.getBook() == null ? null : writeBook(event.getBook());
+        pendingChanges().add(new Object[] {null, event.getBookId(), event.getType().name(),
+                new Timestamp(System.currentTimeMillis()), payload});
+    }
+
+    /**
+     * @return the rows waiting to be written when the current transaction commits
+     */
+    @SuppressWarnings("unchecked")
+    private List<Object[]> pendingChanges() {
+        List<Object[]> pending = (List<Object[]>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        List<Object[]> rows = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, rows);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                write(rows);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(BookChangeLog.this);
+            }
+        });
+        return rows;
+    }
+
+    private void write(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("UPDATE book_change_counter SET last_seq = last_seq + ? WHERE id = 1", rows.size());
+        long seq = latestSeq() - rows.size();
+        for (Object[] row : rows) {
+            row[0] = ++seq;
+        }
+        jdbcTemplate.batchUpdate(INSERT_CHANGE, rows);
+    }
+
+    /**
+     * Deletes up to {@code limit} of the oldest changes made before {@code changedBefore}. The latest
+     * change is always kept, since the catalogue version is read from it.
+     *
+     * @return the number of changes removed
+     */
+    public int prune(Date changedBefore, int limit) {
+        return jdbcTemplate.update("DELETE FROM book_change WHERE seq IN (SELECT seq FROM book_change "
+                + "WHERE changed_at < ? AND seq < (SELECT last_seq FROM book_change_counter WHERE id = 1) "
+                + "ORDER BY seq LIMIT ?)", new Timestamp(changedBefore.getTime()), limit);
+    }
+
+    public List<BookChangeDto> changesSince(long since, int limit) {
+        return jdbcTemplate.query("SELECT seq, book_id, change_type, changed_at, payload FROM book_change "
+                + "WHERE seq > ? ORDER BY seq LIMIT ?", rowMapper, since, limit);
+    }
+
+    public long latestSeq() {
+        Long latest = jdbcTemplate.queryForObject("SELECT last_seq FROM book_change_counter WHERE id = 1", Long.class);
+        return latest == null ? 0 : latest;
+    }
+
+    public CatalogueVersion catalogueVersion() {
+        // Nothing logged yet: the catalogue is as migrated or restored, and its books carry their own times.
+        return jdbcTemplate.queryForObject("SELECT c.last_seq, COALESCE(ch.changed_at, "
+                + "(SELECT MAX(last_modified) FROM book)) FROM book_change_counter c "
+                + "LEFT JOIN book_change ch ON ch.seq = c.last_seq WHERE c.id = 1", (rs, rowNum) -> {
+            Timestamp changedAt = rs.getTimestamp(2);
+            return new CatalogueVersion(rs.getLong(1), changedAt == null ? 0 : changedAt.getTime());
+        });
+    }
+
+    private String writeBook(Book book) {
+        try {
+            return objectMapper.writeValueAsString(book);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Book readBook(String payload) {
+        try {
+            return objectMapper.readValue(payload, Book.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.springboot.bookmanager.changes;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * Prunes {@code book_change} of changes older than {@code retention}, at the times given by the
+ * {@code schedule} cron expression. Feed consumers and replicas that fall further behind than that miss
+ * the pruned changes, so the retention has to outlast their longest expected outage. Changes go in
+ * batches of {@code batch-size}, each in its own transaction with a pause in between.
+ */
+@Component
+@ConditionalOnProperty(name = "bookmanager.changes.compaction.enabled", havingValue = "true")
+public class BookChangeLogCompactor {
+
+    private static final Logger log = LoggerFactory.getLogger(BookChangeLogCompactor.class);
+
+    @Autowired
+    private BookChangeLog bookChangeLog;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Duration retention;
+    private final int batchSize;
+    private final Duration batchPause;
+    private final Counter pruned;
+
+    public BookChangeLogCompactor(@Value("${bookmanager.changes.retention}") Duration retention,
+                                  @Value("${bookmanager.changes.compaction.batch-size}") int batchSize,
+                                  @Value("${bookmanager.changes.compaction.batch-pause}") Duration batchPause,
+                                  MeterRegistry meterRegistry) {
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.batchPause = batchPause;
+        this.pruned = Counter.builder("bookmanager.changes.pruned")
+                .description("Change log entries removed once older than the retention period")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${bookmanager.changes.compaction.schedule}")
+    public void run() {
+        long started = System.nanoTime();
+        try {
+            long removed = compact();
+            log.info("Pruned {} book changes in {} ms", removed, (System.nanoTime() - started) / 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Prunes every change older than the retention period.
+     *
+     * @return the number of changes removed
+     */
+    public long compact() throws InterruptedException {
+        Date changedBefore = new Date(System.currentTimeMillis() - retention.toMillis());
+        long total = 0;
+        int removed;
+        do {
+            removed = transactionTemplate.execute(status -> bookChangeLog.prune(changedBefore, batchSize));
+            total += removed;
+            pruned.increment(removed);
+            if (removed == batchSize) {
+                Thread.sleep(batchPause.toMillis());
+            }
+        } while (removed == batchSize);
+        return total;
+    }
+}
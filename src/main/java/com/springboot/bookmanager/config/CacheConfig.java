@@ -0,0 +1,65 @@
+package com.springboot.bookmanager.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Caches are backed by Caffeine (see {@code spring.cache.caffeine.spec}). The caching advice is
+ * ordered outside the transactional advice so evictions happen only after the write has committed.
+ * <p>
+ * Read-through loads that find nothing are not cached. Bulk import and snapshot restore write rows
+ * without going through the cache advice, so a cached miss would hide such a book until it expired.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    public static final String BOOKS_CACHE = "books";
+
+    @Bean
+    public CaffeineCacheManager cacheManager(CacheProperties cacheProperties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new MissesNotCachedCaffeineCache(name, cache);
+            }
+        };
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setCacheSpecification(cacheProperties.getCaffeine().getSpec());
+        cacheManager.setCacheNames(cacheProperties.getCacheNames());
+        return cacheManager;
+    }
+
+    /**
+     * A null result of a synchronized load is handed to every caller waiting on it but, as with a plain
+     * Caffeine mapping function, not stored.
+     */
+    static class MissesNotCachedCaffeineCache extends CaffeineCache {
+
+        MissesNotCachedCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+            super(name, cache, false);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            return (T) getNativeCache().get(key, k -> {
+                try {
+                    return valueLoader.call();
+                } catch (Exception e) {
+                    throw new Cache.ValueRetrievalException(key, valueLoader, e);
+                }
+            });
+        }
+    }
+}
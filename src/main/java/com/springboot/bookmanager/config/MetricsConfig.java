@@ -0,0 +1,47 @@
+package com.springboot.bookmanager.config;
+
+import com.springboot.bookmanager.changes.BookChangeFeed;
+import com.springboot.bookmanager.changes.BookChangeLog;
+import com.springboot.bookmanager.search.BookSearchIndex;
+import com.springboot.bookmanager.stats.BookPriceSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Application gauges. Request, repository, cache and connection pool metrics come from Spring Boot's
+ * auto-configuration; service timers from {@code @Timed} on the services.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder catalogueMetrics(BookPriceSummary bookPriceSummary, BookSearchIndex bookSearchIndex) {
+        return registry -> {
+            // Read from the in-memory columns rather than a COUNT(*) per scrape.
+            Gauge.builder("bookmanager.catalogue.size", bookPriceSummary, BookPriceSummary::size)
+                    .description("Number of books in the catalogue")
+                    .register(registry);
+            Gauge.builder("bookmanager.search.documents", bookSearchIndex, index -> index.stats().getDocuments())
+                    .description("Number of books held by the search index")
+                    .register(registry);
+            Gauge.builder("bookmanager.search.memory", bookSearchIndex, index -> index.stats().getEstimatedBytes())
+                    .description("Estimated heap used by the search index")
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder changeFeedMetrics(BookChangeLog bookChangeLog, BookChangeFeed bookChangeFeed) {
+        return registry -> {
+            Gauge.builder("bookmanager.changes.sequence", bookChangeLog, BookChangeLog::latestSeq)
+                    .description("Sequence number of the latest committed book change")
+                    .register(registry);
+            Gauge.builder("bookmanager.changes.subscribers", bookChangeFeed, BookChangeFeed::subscriberCount)
+                    .description("Open change feed streams and pending long polls")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package com.springboot.bookmanager.config;
+
+import com.springboot.bookmanager.replicas.ReplicaRoutingDataSource;
+import com.springboot.bookmanager.replicas.ReplicaSet;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas ({@code bookmanager.replicas.*}). The application's {@link DataSource} is a
+ * {@link LazyConnectionDataSourceProxy}: it fetches the physical connection at the first statement, when
+ * the transaction has already marked it read-only or not. Read-write work gets a primary connection;
+ * read-only transactions get one from {@link ReplicaRoutingDataSource}, which picks a replica within the
+ * lag tolerance, or the primary if none is.
+ */
+@Configuration
+@ConditionalOnProperty(name = "bookmanager.replicas.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaSet replicaSet(HikariDataSource primaryDataSource, DataSourceProperties properties,
+                                 @Value("${bookmanager.replicas.urls}") List<String> urls,
+                                 @Value("${bookmanager.replicas.pool-size}") int poolSize,
+                                 @Value("${bookmanager.replicas.max-lag}") Duration maxLag,
+                                 @Value("${bookmanager.replicas.lag-check-interval}") Duration lagCheckInterval) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(url)
+                    .build();
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setMaximumPoolSize(poolSize);
+            replicas.add(replica);
+        }
+        ReplicaSet replicaSet = new ReplicaSet(primaryDataSource, replicas, maxLag, lagCheckInterval);
+        replicaSet.start();
+        return replicaSet;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaSet replicaSet) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(primaryDataSource, replicaSet));
+        return dataSource;
+    }
+
+    @Bean
+    public MeterBinder replicaMetrics(ReplicaSet replicaSet) {
+        return registry -> {
+            for (int i = 0; i < replicaSet.replicas().size(); i++) {
+                int replica = i;
+                Gauge.builder("bookmanager.replicas.lag", replicaSet, set -> set.lagSeconds(replica))
+                        .description("How far the replica is behind the primary; NaN while it is unavailable")
+                        .tag("replica", Integer.toString(replica))
+                        .baseUnit("seconds")
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package com.springboot.bookmanager.config;
+
+import com.springboot.bookmanager.service.BookSnapshotService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SnapshotConfig {
+
+    /**
+     * Restores the latest snapshot straight after the migrations have run, before the JPA layer,
+     * the caches and the search index come up, so they all start from the restored catalogue.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "bookmanager.snapshot.restore-on-startup", havingValue = "true")
+    public FlywayMigrationStrategy restoreSnapshotAfterMigration(BookSnapshotService bookSnapshotService) {
+        return flyway -> {
+            flyway.migrate();
+            bookSnapshotService.restoreLatestIfEmpty();
+        };
+    }
+}
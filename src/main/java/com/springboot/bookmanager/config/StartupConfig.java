@@ -0,0 +1,25 @@
+package com.springboot.bookmanager.config;
+
+import com.springboot.bookmanager.changes.BookChangeLogCompactor;
+import com.springboot.bookmanager.replicas.LocalReplicator;
+import com.springboot.bookmanager.service.BookTombstoneCompactor;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Beans that stay eager when {@code spring.main.lazy-initialization} is on (the {@code prod} profile).
+ * Schema migrations, and a snapshot restore after them, have to finish before the first request is
+ * accepted rather than inside it; so does loading local replicas. The replicator and the compactors have
+ * no callers, so as lazy beans they would never start.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(FlywayMigrationInitializer.class, LocalReplicator.class,
+                BookTombstoneCompactor.class, BookChangeLogCompactor.class);
+    }
+}
@@ -0,0 +1,106 @@
+package com.springboot.bookmanager.controller;
+
+import com.springboot.bookmanager.dto.WriteTicketDto;
+import com.springboot.bookmanager.exception.Problems;
+import com.springboot.bookmanager.models.Book;
+import com.springboot.bookmanager.writes.BookWriteQueue;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.Optional;
+
+@Tag(name = "Asynchronous Book Writes", description = "Book writes acknowledged with 202 and committed in batches")
+@RestController
+@RequestMapping("/api/books/async")
+@ConditionalOnProperty(name = "bookmanager.async-writes.enabled", havingValue = "true")
+public class BookAsyncWriteController {
+
+    @Autowired
+    private BookWriteQueue bookWriteQueue;
+
+    @Operation(summary = "Queue a new Book; poll the returned ticket for its id")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", content = {
+                    @Content(schema = @Schema(implementation = WriteTicketDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)}),
+            @ApiResponse(responseCode = "400", description = "Exception in creating a Book", content = {
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)}),
+            @ApiResponse(responseCode = "503", description = "Write queue full", content = {
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)})
+    })
+    @PostMapping
+    public ResponseEntity<WriteTicketDto> createBook(@Valid @RequestBody Book book) {
+        return accepted(bookWriteQueue.submitCreate(book));
+    }
+
+    @Operation(summary = "Queue a replacement of Book details")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", content = {
+                    @Content(schema = @Schema(implementation = WriteTicketDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)}),
+            @ApiResponse(responseCode = "400", description = "Exception in updating the Book", content = {
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)}),
+            @ApiResponse(responseCode = "503", description = "Write queue full", content = {
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)})
+    })
+    @PutMapping("/{id}")
+    public ResponseEntity<WriteTicketDto> updateBookById(@PathVariable Long id, @Valid @RequestBody Book book) {
+        return accepted(bookWriteQueue.submitUpdate(id, book));
+    }
+
+    @Operation(summary = "Queue the deletion of a Book")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", content = {
+                    @Content(schema = @Schema(implementation = WriteTicketDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)}),
+            @ApiResponse(responseCode = "503", description = "Write queue full", content = {
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)})
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<WriteTicketDto> deleteBook(@PathVariable Long id) {
+        return accepted(bookWriteQueue.submitDelete(id));
+    }
+
+    @Operation(summary = "Get the state of a queued write")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {
+                    @Content(schema = @Schema(implementation = WriteTicketDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)}),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired ticket", content = {
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)})
+    })
+    @GetMapping("/tickets/{ticket}")
+    public ResponseEntity<WriteTicketDto> getTicket(@PathVariable long ticket) {
+        Optional<WriteTicketDto> status = bookWriteQueue.status(ticket);
+        if (status.isPresent()) {
+            return new ResponseEntity<>(status.get(), HttpStatus.OK);
+        } else {
+            return ResponseEntity.of(Problems.of(HttpStatus.NOT_FOUND, "Entity not found", "Write ticket not found")).build();
+        }
+    }
+
+    private ResponseEntity<WriteTicketDto> accepted(WriteTicketDto ticket) {
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/books/async/tickets/{ticket}")
+                .buildAndExpand(ticket.getTicket())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(ticket);
+    }
+}
@@ -0,0 +1,64 @@
+package com.springboot.bookmanager.controller;
+
+import com.springboot.bookmanager.changes.BookChangeFeed;
+import com.springboot.bookmanager.dto.BookChangeDto;
+import com.springboot.bookmanager.dto.BookChangePageDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+
+@Tag(name = "Book Changes", description = "Incremental feed of Book creations, updates and deletions")
+@Validated
+@RestController
+@RequestMapping("/api/books/changes")
+public class BookChangeController {
+
+    private static final long MAX_PAGE_SIZE = 1000;
+    private static final long MAX_WAIT_SECONDS = 60;
+
+    @Autowired
+    private BookChangeFeed bookChangeFeed;
+
+    @Operation(summary = "Get the Book changes after a sequence number, optionally waiting for new ones")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {
+                    @Content(schema = @Schema(implementation = BookChangePageDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)}),
+            @ApiResponse(responseCode = "400", description = "Invalid feed parameters", content = {
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)})
+    })
+    @GetMapping
+    public DeferredResult<BookChangePageDto> getChanges(@RequestParam(defaultValue = "0") @Min(0) long since,
+                                                        @RequestParam(defaultValue = "100") @Min(1) @Max(MAX_PAGE_SIZE) int limit,
+                                                        @RequestParam(defaultValue = "0") @Min(0) @Max(MAX_WAIT_SECONDS) int waitSeconds) {
+        return bookChangeFeed.poll(since, limit, Duration.ofSeconds(waitSeconds));
+    }
+
+    @Operation(summary = "Subscribe to Book changes as Server-Sent Events, resuming after Last-Event-ID or since")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {
+                    @Content(schema = @Schema(implementation = BookChangeDto.class), mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)})
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(defaultValue = "0") @Min(0) long since,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return bookChangeFeed.subscribe(lastEventId != null ? lastEventId : since);
+    }
+}
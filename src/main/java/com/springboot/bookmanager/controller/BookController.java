@@ -1,23 +1,47 @@
 package com.springboot.bookmanager.controller;
 
-import com.springboot.bookmanager.exception.ErrorResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.springboot.bookmanager.changes.BookChangeLog;
+import com.springboot.bookmanager.dto.BookBatchDto;
+import com.springboot.bookmanager.dto.BookPatchDto;
+import com.springboot.bookmanager.dto.BookView;
+import com.springboot.bookmanager.dto.BulkImportResultDto;
+import com.springboot.bookmanager.exception.BookNotFoundException;
+import com.springboot.bookmanager.exception.Problems;
 import com.springboot.bookmanager.models.Book;
+import com.springboot.bookmanager.service.BookImportService;
 import com.springboot.bookmanager.service.BookService;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,17 +51,34 @@ import java.util.Optional;
 @RequestMapping("/api/books")
 public class BookController {
 
+    private static final String DEFAULT_PAGE_SIZE = "100";
+    private static final long MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     @Autowired
     private BookService bookService;
 
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${bookmanager.http-cache.max-age}")
+    private Duration cacheMaxAge;
+
     @Operation(summary = "Add a new Book to the Book Manager")
     @ApiResponses({
             @ApiResponse(responseCode = "201", content = {
                     @Content(schema = @Schema(implementation = Book.class), mediaType = MediaType.APPLICATION_JSON_VALUE)}),
             @ApiResponse(responseCode = "400", description = "Exception in creating a Book", content = {
-                    @Content(schema = @Schema(implementation = ErrorResponseDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)}),
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)}),
             @ApiResponse(responseCode = "422", content = {
-                    @Content(schema = @Schema(implementation = ErrorResponseDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)})
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)})
     })
     @PostMapping
     public ResponseEntity<Book> createBook(@Valid @RequestBody Book book) {
@@ -45,19 +86,110 @@ public class BookController {
         return new ResponseEntity<>(createdBook, HttpStatus.CREATED);
     }
 
+    @Operation(summary = "Bulk import Books from a JSON array or newline-delimited JSON feed")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Import report; a malformed feed stops the import at the failing record", content = {
+                    @Content(schema = @Schema(implementation = BulkImportResultDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)})
+    })
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkImportResultDto> importBooks(InputStream body) throws IOException {
+        BulkImportResultDto result = bookImportService.importBooks(body);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    @Operation(summary = "Bulk import Books from a CSV feed with a header row")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Import report; a malformed feed stops the import at the failing record", content = {
+                    @Content(schema = @Schema(implementation = BulkImportResultDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)})
+    })
+    @PostMapping(value = "/bulk", consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<BulkImportResultDto> importBooksFromCsv(InputStream body) throws IOException {
+        BulkImportResultDto result = bookImportService.importCsv(body);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
     @Operation(summary = "Get List of all the Books from the Book Manager")
     @ApiResponses({
             @ApiResponse(responseCode = "200", content = {
                     @Content(schema = @Schema(implementation = Book.class), mediaType = MediaType.APPLICATION_JSON_VALUE)}),
             @ApiResponse(responseCode = "400", description = "Exception in reading Books", content = {
-                    @Content(schema = @Schema(implementation = ErrorResponseDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)}),
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)}),
             @ApiResponse(responseCode = "422", content = {
-                    @Content(schema = @Schema(implementation = ErrorResponseDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)})
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)}),
+            @ApiResponse(responseCode = "304", description = "Not modified since the given ETag or date")
     })
     @GetMapping
-    public ResponseEntity<List<Book>> getAllBooks() {
-        List<Book> books = bookService.getAllBooks();
-        return new ResponseEntity<>(books, HttpStatus.OK);
+    public ResponseEntity<List<Book>> getAllBooks(@RequestParam(required = false) String author,
+                                                  @RequestParam(required = false) String titlePrefix,
+                                                  @RequestParam(required = false) Long after,
+                                                  @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Min(1) @Max(MAX_PAGE_SIZE) int limit,
+                                                  WebRequest webRequest) {
+        BookChangeLog.CatalogueVersion catalogue = bookService.getCatalogueVersion();
+        if (webRequest.checkNotModified(catalogue.eTag(), catalogue.lastModified())) {
+            return notModified();
+        }
+        List<Book> books = bookService.findBooks(author, titlePrefix, after, limit);
+        HttpHeaders headers = cacheHeaders(catalogue.eTag(), catalogue.lastModified());
+        if (books.size() == limit) {
+            // A full page means there may be more rows; hand out the keyset cursor for the next one.
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", books.get(books.size() - 1).getId())
+                    .replaceQueryParam("limit", limit)
+                    .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return new ResponseEntity<>(books, headers, HttpStatus.OK);
+    }
+
+    @Operation(summary = "Get a compact page of Books for bulk consumers, as JSON, Smile or CBOR")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {
+                    @Content(schema = @Schema(implementation = BookView.class), mediaType = MediaType.APPLICATION_JSON_VALUE),
+                    @Content(schema = @Schema(implementation = BookView.class), mediaType = "application/x-jackson-smile"),
+                    @Content(schema = @Schema(implementation = BookView.class), mediaType = "application/cbor")}),
+            @ApiResponse(responseCode = "400", description = "Exception in reading Books", content = {
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)}),
+            @ApiResponse(responseCode = "304", description = "Not modified since the given ETag or date")
+    })
+    @GetMapping("/views")
+    public ResponseEntity<List<BookView>> getBookViews(@RequestParam(required = false) Long after,
+                                                       @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Min(1) @Max(MAX_PAGE_SIZE) int limit,
+                                                       WebRequest webRequest) {
+        BookChangeLog.CatalogueVersion catalogue = bookService.getCatalogueVersion();
+        if (webRequest.checkNotModified(catalogue.eTag(), catalogue.lastModified())) {
+            return notModified();
+        }
+        List<BookView> views = bookService.getBookViewsAfter(after, limit);
+        HttpHeaders headers = cacheHeaders(catalogue.eTag(), catalogue.lastModified());
+        if (views.size() == limit) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", views.get(views.size() - 1).id())
+                    .replaceQueryParam("limit", limit)
+                    .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return new ResponseEntity<>(views, headers, HttpStatus.OK);
+    }
+
+    @Operation(summary = "Stream all the Books from the Book Manager as newline-delimited JSON")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {
+                    @Content(schema = @Schema(implementation = Book.class), mediaType = MediaType.APPLICATION_NDJSON_VALUE)}),
+            @ApiResponse(responseCode = "400", description = "Exception in reading Books", content = {
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)})
+    })
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllBooks() {
+        ObjectWriter writer = objectMapper.writerFor(Book.class);
+        StreamingResponseBody body = out -> bookService.streamAllBooks(book -> {
+            try {
+                out.write(writer.writeValueAsBytes(book));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @Operation(summary = "Get a specific Book from the Book Manager")
@@ -65,17 +197,62 @@ public class BookController {
             @ApiResponse(responseCode = "200", content = {
                     @Content(schema = @Schema(implementation = Book.class), mediaType = MediaType.APPLICATION_JSON_VALUE)}),
             @ApiResponse(responseCode = "400", description = "Exception in reading the Book", content = {
-                    @Content(schema = @Schema(implementation = ErrorResponseDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)}),
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)}),
             @ApiResponse(responseCode = "422", content = {
-                    @Content(schema = @Schema(implementation = ErrorResponseDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)})
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)}),
+            @ApiResponse(responseCode = "304", description = "Not modified since the given ETag or date")
     })
     @GetMapping("/{id}")
     public ResponseEntity<Book> getBookById(@PathVariable Long id) throws Exception {
         Optional<Book> book = bookService.getBookById(id);
         if (book.isPresent()) {
-            return new ResponseEntity<>(book.get(), HttpStatus.OK);
+            // With these validators in place, Spring answers a matching If-None-Match or If-Modified-Since
+            // with 304 itself and never serializes the body.
+            return new ResponseEntity<>(book.get(), cacheHeaders(book.get()), HttpStatus.OK);
         } else {
-            throw new EntityNotFoundException("Book Not Found");
+            return bookNotFound();
+        }
+    }
+
+    @Operation(summary = "Get many Books by id in one request")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {
+                    @Content(schema = @Schema(implementation = BookBatchDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)}),
+            @ApiResponse(responseCode = "400", description = "Missing, null or too many ids", content = {
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)})
+    })
+    @PostMapping("/batch-get")
+    public ResponseEntity<BookBatchDto> getBooksByIds(@RequestBody @Size(min = 1, max = MAX_BATCH_SIZE) List<@NotNull Long> ids) {
+        return new ResponseEntity<>(bookService.getBooksByIds(ids), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Get many Books by id, given as a comma-separated ids parameter")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {
+                    @Content(schema = @Schema(implementation = BookBatchDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)}),
+            @ApiResponse(responseCode = "400", description = "Missing or too many ids", content = {
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)})
+    })
+    @GetMapping(params = "ids")
+    public ResponseEntity<BookBatchDto> getBooksByIdsParam(@RequestParam @Size(min = 1, max = MAX_BATCH_SIZE) List<@NotNull Long> ids) {
+        return getBooksByIds(ids);
+    }
+
+    @Operation(summary = "Get a specific Book from the Book Manager by its ISBN")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {
+                    @Content(schema = @Schema(implementation = Book.class), mediaType = MediaType.APPLICATION_JSON_VALUE)}),
+            @ApiResponse(responseCode = "404", description = "No Book with that ISBN", content = {
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)}),
+            @ApiResponse(responseCode = "304", description = "Not modified since the given ETag or date")
+    })
+    @GetMapping("/isbn/{isbn}")
+    public ResponseEntity<Book> getBookByIsbn(@PathVariable String isbn) {
+        Optional<Book> book = bookService.getBookByIsbn(isbn);
+        if (book.isPresent()) {
+            return new ResponseEntity<>(book.get(), cacheHeaders(book.get()), HttpStatus.OK);
+        } else {
+            return bookNotFound();
         }
     }
 
@@ -84,14 +261,43 @@ public class BookController {
             @ApiResponse(responseCode = "201", content = {
                     @Content(schema = @Schema(implementation = Book.class), mediaType = MediaType.APPLICATION_JSON_VALUE)}),
             @ApiResponse(responseCode = "400", description = "Exception in updating the Book", content = {
-                    @Content(schema = @Schema(implementation = ErrorResponseDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)}),
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)}),
+            @ApiResponse(responseCode = "409", description = "Concurrent update of the Book", content = {
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)}),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current version", content = {
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)}),
             @ApiResponse(responseCode = "422", content = {
-                    @Content(schema = @Schema(implementation = ErrorResponseDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)})
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)})
     })
     @PutMapping("/{id}")
-    public ResponseEntity<Book> updateBookById(@PathVariable Long id, @Valid @RequestBody Book book) {
-        Book updatedBook = bookService.updateBookById(id, book);
-        return new ResponseEntity<>(updatedBook, HttpStatus.OK);
+    public ResponseEntity<Book> updateBookById(@PathVariable Long id, @Valid @RequestBody Book book,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = ifMatch != null ? BookETags.expectedVersion(ifMatch) : book.getVersion();
+        Book updatedBook = bookService.updateBookById(id, book, expectedVersion);
+        return new ResponseEntity<>(updatedBook, BookETags.headers(updatedBook), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Partially update Book details in the Book Manager")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {
+                    @Content(schema = @Schema(implementation = Book.class), mediaType = MediaType.APPLICATION_JSON_VALUE)}),
+            @ApiResponse(responseCode = "400", description = "Exception in updating the Book", content = {
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)}),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current version", content = {
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)})
+    })
+    @PatchMapping(value = "/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/merge-patch+json"})
+    public ResponseEntity<Book> patchBookById(@PathVariable Long id, @Valid @RequestBody BookPatchDto patch,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = ifMatch != null ? BookETags.expectedVersion(ifMatch) : null;
+        if (patch.isEmpty()) {
+            Optional<Book> book = bookService.getBookById(id);
+            return book.isPresent()
+                    ? new ResponseEntity<>(book.get(), BookETags.headers(book.get()), HttpStatus.OK)
+                    : bookNotFound();
+        }
+        Book patchedBook = bookService.patchBook(id, patch, expectedVersion);
+        return new ResponseEntity<>(patchedBook, BookETags.headers(patchedBook), HttpStatus.OK);
     }
 
     @Operation(summary = "Delete a Book from the Book Manager")
@@ -99,18 +305,67 @@ public class BookController {
             @ApiResponse(responseCode = "200", content = {
                     @Content(schema = @Schema(implementation = String.class), mediaType = MediaType.TEXT_PLAIN_VALUE)}),
             @ApiResponse(responseCode = "400", description = "Exception in deleting the Book", content = {
-                    @Content(schema = @Schema(implementation = ErrorResponseDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)}),
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)}),
             @ApiResponse(responseCode = "422", content = {
-                    @Content(schema = @Schema(implementation = ErrorResponseDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)})
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)})
     })
     @DeleteMapping("/{id}")
-    public String deleteBook(@PathVariable Long id) {
-        Optional<Book> book = bookService.getBookById(id);
-        if (book.isPresent()) {
-            bookService.deleteBook(id);
-            return "Book Deleted Successfully";
+    public ResponseEntity<String> deleteBook(@PathVariable Long id,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = ifMatch != null ? BookETags.expectedVersion(ifMatch) : null;
+        if (bookService.deleteBook(id, expectedVersion)) {
+            return new ResponseEntity<>("Book Deleted Successfully", HttpStatus.OK);
         } else {
-            throw new EntityNotFoundException("Book Not Found");
+            return bookNotFound();
         }
     }
+
+    @Operation(summary = "Restore a deleted Book whose tombstone has not been purged yet")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {
+                    @Content(schema = @Schema(implementation = Book.class), mediaType = MediaType.APPLICATION_JSON_VALUE)}),
+            @ApiResponse(responseCode = "404", description = "No deleted Book with that id", content = {
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)}),
+            @ApiResponse(responseCode = "409", description = "The Book's ISBN has been reused since it was deleted", content = {
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)})
+    })
+    @PostMapping("/{id}/restore")
+    public ResponseEntity<Book> restoreBook(@PathVariable Long id) {
+        Book restoredBook = bookService.restoreBook(id);
+        return new ResponseEntity<>(restoredBook, BookETags.headers(restoredBook), HttpStatus.OK);
+    }
+
+    private HttpHeaders cacheHeaders(Book book) {
+        return cacheHeaders(BookETags.of(book), book.getLastModified() == null ? -1 : book.getLastModified().getTime());
+    }
+
+    private HttpHeaders cacheHeaders(String eTag, long lastModified) {
+        HttpHeaders headers = new HttpHeaders();
+        if (eTag != null) {
+            headers.setETag(eTag);
+        }
+        if (lastModified >= 0) {
+            headers.setLastModified(lastModified);
+        }
+        headers.setCacheControl(CacheControl.maxAge(cacheMaxAge).cachePublic().mustRevalidate());
+        // The same URL also serves Smile and CBOR.
+        headers.setVary(List.of(HttpHeaders.ACCEPT));
+        return headers;
+    }
+
+    // checkNotModified has already set the status and validators on the response.
+    private <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(CacheControl.maxAge(cacheMaxAge).cachePublic().mustRevalidate())
+                .build();
+    }
+
+    // Lookups answer a miss directly instead of throwing, keeping 404s off the exception-resolution path.
+    // The miss is still counted in the bookmanager.errors series GlobalExceptionHandler would have used.
+    private <T> ResponseEntity<T> bookNotFound() {
+        meterRegistry.counter("bookmanager.errors",
+                "exception", BookNotFoundException.class.getSimpleName(),
+                "status", String.valueOf(HttpStatus.NOT_FOUND.value())).increment();
+        return ResponseEntity.of(Problems.of(HttpStatus.NOT_FOUND, "Entity not found", "Book Not Found")).build();
+    }
 }
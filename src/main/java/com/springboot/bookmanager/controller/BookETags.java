@@ -0,0 +1,48 @@
+package com.springboot.bookmanager.controller;
+
+import com.springboot.bookmanager.exception.PreconditionFailedException;
+import com.springboot.bookmanager.models.Book;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Maps {@link Book#getVersion()} to and from strong entity tags of the form {@code "<version>"}.
+ */
+final class BookETags {
+
+    private BookETags() {
+    }
+
+    static String of(Book book) {
+        return book.getVersion() == null ? null : "\"" + book.getVersion() + "\"";
+    }
+
+    static HttpHeaders headers(Book book) {
+        HttpHeaders headers = new HttpHeaders();
+        String eTag = of(book);
+        if (eTag != null) {
+            headers.setETag(eTag);
+        }
+        return headers;
+    }
+
+    /**
+     * Parses an {@code If-Match} header into the version it expects.
+     *
+     * @return the expected version, or {@code null} for {@code *} (any current version)
+     */
+    static Long expectedVersion(String ifMatch) {
+        String value = ifMatch.trim();
+        if ("*".equals(value)) {
+            return null;
+        }
+        // If-Match uses strong comparison, so weak or malformed tags can never match.
+        if (value.length() < 3 || !value.startsWith("\"") || !value.endsWith("\"")) {
+            throw new PreconditionFailedException("If-Match does not match the current version");
+        }
+        try {
+            return Long.valueOf(value.substring(1, value.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match does not match the current version");
+        }
+    }
+}
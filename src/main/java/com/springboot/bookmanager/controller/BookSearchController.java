@@ -0,0 +1,57 @@
+package com.springboot.bookmanager.controller;
+
+import com.springboot.bookmanager.dto.SearchIndexStatsDto;
+import com.springboot.bookmanager.dto.SearchResultDto;
+import com.springboot.bookmanager.search.BookSearchIndex;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Book Search", description = "Full-text search over Book titles and authors")
+@Validated
+@RestController
+@RequestMapping("/api/books/search")
+public class BookSearchController {
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Operation(summary = "Search Books by title and author words, matching prefixes and near misses")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {
+                    @Content(schema = @Schema(implementation = SearchResultDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)}),
+            @ApiResponse(responseCode = "400", description = "Invalid search parameters", content = {
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)})
+    })
+    @GetMapping
+    public ResponseEntity<SearchResultDto> search(@RequestParam("q") String query,
+                                                  @RequestParam(defaultValue = "0") @Min(0) int page,
+                                                  @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+        return new ResponseEntity<>(bookSearchIndex.search(query, page, size), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Get size and memory statistics of the search index")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {
+                    @Content(schema = @Schema(implementation = SearchIndexStatsDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)})
+    })
+    @GetMapping("/stats")
+    public ResponseEntity<SearchIndexStatsDto> stats() {
+        return new ResponseEntity<>(bookSearchIndex.stats(), HttpStatus.OK);
+    }
+}
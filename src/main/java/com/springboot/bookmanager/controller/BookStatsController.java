@@ -0,0 +1,102 @@
+package com.springboot.bookmanager.controller;
+
+import com.springboot.bookmanager.dto.BookRangeFilter;
+import com.springboot.bookmanager.dto.PriceGrouping;
+import com.springboot.bookmanager.dto.PriceStatsDto;
+import com.springboot.bookmanager.models.Book;
+import com.springboot.bookmanager.service.BookService;
+import com.springboot.bookmanager.stats.BookPriceSummary;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.PositiveOrZero;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Tag(name = "Book Statistics", description = "Price and publication-date range queries and price statistics")
+@Validated
+@RestController
+@RequestMapping("/api/books")
+public class BookStatsController {
+
+    private static final long MAX_PAGE_SIZE = 1000;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookPriceSummary bookPriceSummary;
+
+    @Operation(summary = "Get a page of Books within a price and publication-date range, ordered by id")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {
+                    @Content(array = @ArraySchema(schema = @Schema(implementation = Book.class)), mediaType = MediaType.APPLICATION_JSON_VALUE)}),
+            @ApiResponse(responseCode = "400", description = "Invalid range or paging parameters", content = {
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)})
+    })
+    @GetMapping("/range")
+    public ResponseEntity<List<Book>> findBooksInRange(
+            @RequestParam(required = false) @PositiveOrZero Double minPrice,
+            @RequestParam(required = false) @PositiveOrZero Double maxPrice,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate publishedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate publishedTo,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+        BookRangeFilter filter = new BookRangeFilter(minPrice, maxPrice, publishedFrom, publishedTo);
+        return new ResponseEntity<>(bookService.findBooksInRange(filter, after, limit), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Get count, min, max, average and percentile prices per author or publication year")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {
+                    @Content(array = @ArraySchema(schema = @Schema(implementation = PriceStatsDto.class)), mediaType = MediaType.APPLICATION_JSON_VALUE)}),
+            @ApiResponse(responseCode = "400", description = "Invalid range parameters", content = {
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)})
+    })
+    @GetMapping("/stats")
+    public ResponseEntity<List<PriceStatsDto>> aggregatePrices(
+            @RequestParam(defaultValue = "AUTHOR") PriceGrouping groupBy,
+            @RequestParam(required = false) @PositiveOrZero Double minPrice,
+            @RequestParam(required = false) @PositiveOrZero Double maxPrice,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate publishedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate publishedTo,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+        BookRangeFilter filter = new BookRangeFilter(minPrice, maxPrice, publishedFrom, publishedTo);
+        return new ResponseEntity<>(bookService.aggregatePrices(filter, groupBy, limit), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Get catalogue-wide price statistics from the in-memory summary")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {
+                    @Content(schema = @Schema(implementation = PriceStatsDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)}),
+            @ApiResponse(responseCode = "400", description = "Invalid range parameters", content = {
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)})
+    })
+    @GetMapping("/stats/summary")
+    public ResponseEntity<PriceStatsDto> summarizePrices(
+            @RequestParam(required = false) @PositiveOrZero Double minPrice,
+            @RequestParam(required = false) @PositiveOrZero Double maxPrice,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate publishedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate publishedTo) {
+        BookRangeFilter filter = new BookRangeFilter(minPrice, maxPrice, publishedFrom, publishedTo);
+        return new ResponseEntity<>(bookPriceSummary.summarize(filter), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,39 @@
+package com.springboot.bookmanager.controller;
+
+import com.springboot.bookmanager.dto.SnapshotDto;
+import com.springboot.bookmanager.service.BookSnapshotService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Catalogue Snapshots", description = "Snapshot the Book table for fast restore on startup")
+@RestController
+@RequestMapping("/api/admin/snapshots")
+public class SnapshotController {
+
+    @Autowired
+    private BookSnapshotService bookSnapshotService;
+
+    @Operation(summary = "Write a CSV snapshot of the Book table to the snapshot directory")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", content = {
+                    @Content(schema = @Schema(implementation = SnapshotDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)}),
+            @ApiResponse(responseCode = "500", description = "Exception in writing the snapshot", content = {
+                    @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)})
+    })
+    @PostMapping
+    public ResponseEntity<SnapshotDto> createSnapshot() {
+        return new ResponseEntity<>(bookSnapshotService.createSnapshot(), HttpStatus.CREATED);
+    }
+}
@@ -0,0 +1,18 @@
+package com.springboot.bookmanager.dto;
+
+import com.springboot.bookmanager.models.Book;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookBatchDto {
+    private List<Book> books;
+    private List<Long> missing;
+}
@@ -0,0 +1,24 @@
+package com.springboot.bookmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.springboot.bookmanager.event.BookChangedEvent;
+import com.springboot.bookmanager.models.Book;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookChangeDto {
+    private long seq;
+    private Long bookId;
+    private BookChangedEvent.Type type;
+    private Date changedAt;
+    private Book book;
+}
@@ -0,0 +1,18 @@
+package com.springboot.bookmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookChangePageDto {
+    private List<BookChangeDto> changes;
+    // Pass back as ?since= to continue after this page.
+    private long lastSeq;
+}
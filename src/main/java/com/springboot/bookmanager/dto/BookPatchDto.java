@@ -0,0 +1,40 @@
+package com.springboot.bookmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Partial update of a book: only the fields present in the request are written.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookPatchDto {
+
+    @Pattern(regexp = ".*\\S.*", message = "Title cannot be empty")
+    private String title;
+
+    @Pattern(regexp = ".*\\S.*", message = "Author cannot be empty")
+    private String author;
+
+    private Date publishedDate;
+
+    @Pattern(regexp = "^(97([89]))?\\d{9}(\\d|X)$", message = "Invalid ISBN format")
+    private String isbn;
+
+    @Positive(message = "Price must be positive")
+    private Double price;
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return title == null && author == null && publishedDate == null && isbn == null && price == null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.springboot.bookmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Optional price and publication-date bounds. Prices are inclusive; {@code publishedTo} includes the whole day.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookRangeFilter {
+    private Double minPrice;
+    private Double maxPrice;
+    private LocalDate publishedFrom;
+    private LocalDate publishedTo;
+
+    public Long publishedFromMillis() {
+        return publishedFrom == null ? null
+                : publishedFrom.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public Long publishedToExclusiveMillis() {
+        return publishedTo == null ? null
+                : publishedTo.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
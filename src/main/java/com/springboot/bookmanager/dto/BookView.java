@@ -0,0 +1,19 @@
+package com.springboot.bookmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.util.Date;
+
+/**
+ * Read-only projection of a book for bulk consumers. It is filled directly from a JPQL constructor
+ * expression and writes the publication date as epoch milliseconds instead of a formatted string.
+ */
+public record BookView(
+        Long id,
+        String title,
+        String author,
+        @JsonFormat(shape = JsonFormat.Shape.NUMBER) Date publishedDate,
+        String isbn,
+        Double price,
+        Long version) {
+}
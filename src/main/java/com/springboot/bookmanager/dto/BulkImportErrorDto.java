@@ -1,4 +1,4 @@
-package com.springboot.bookmanager.exception;
+package com.springboot.bookmanager.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
@@ -6,15 +6,13 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.io.Serializable;
-
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
-public class ErrorResponseDto implements Serializable {
-    private String errorCode;
-    private String timestamp;
+public class BulkImportErrorDto {
+    private int index;
+    private String isbn;
     private String message;
-}
\ No newline at end of file
+}
@@ -0,0 +1,18 @@
+package com.springboot.bookmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportResultDto {
+    private int received;
+    private int imported;
+    private List<BulkImportErrorDto> errors;
+}
@@ -0,0 +1,6 @@
+package com.springboot.bookmanager.dto;
+
+public enum PriceGrouping {
+    AUTHOR,
+    YEAR
+}
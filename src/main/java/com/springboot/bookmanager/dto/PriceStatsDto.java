@@ -0,0 +1,23 @@
+package com.springboot.bookmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PriceStatsDto {
+    private String group;
+    private long count;
+    private Double min;
+    private Double max;
+    private Double avg;
+    private Double p50;
+    private Double p90;
+    private Double p99;
+}
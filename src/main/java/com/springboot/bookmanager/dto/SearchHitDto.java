@@ -0,0 +1,17 @@
+package com.springboot.bookmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHitDto {
+    private Long id;
+    private String title;
+    private String author;
+    private double score;
+}
@@ -0,0 +1,20 @@
+package com.springboot.bookmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchIndexStatsDto {
+    private boolean ready;
+    private int documents;
+    private int maxDocuments;
+    private long droppedDocuments;
+    private int terms;
+    private long postings;
+    private long estimatedBytes;
+}
@@ -0,0 +1,17 @@
+package com.springboot.bookmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SnapshotDto {
+    private String file;
+    private long rows;
+    private long bytes;
+    private long durationMillis;
+}
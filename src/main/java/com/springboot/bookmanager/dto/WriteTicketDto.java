@@ -0,0 +1,28 @@
+package com.springboot.bookmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class WriteTicketDto {
+
+    public enum Operation {
+        CREATE, UPDATE, DELETE
+    }
+
+    public enum Status {
+        PENDING, COMMITTED, FAILED
+    }
+
+    private long ticket;
+    private Operation operation;
+    private Status status;
+    private Long bookId;
+    private Long version;
+    private String error;
+}
@@ -0,0 +1,26 @@
+package com.springboot.bookmanager.event;
+
+import com.springboot.bookmanager.models.Book;
+import lombok.Value;
+
+/**
+ * Published by the write paths whenever a book is created, updated or deleted, so in-memory
+ * views of the catalogue can follow along once the change has committed.
+ */
+@Value
+public class BookChangedEvent {
+
+    public enum Type { SAVED, DELETED }
+
+    Type type;
+    Long bookId;
+    Book book;
+
+    public static BookChangedEvent saved(Book book) {
+        return new BookChangedEvent(Type.SAVED, book.getId(), book);
+    }
+
+    public static BookChangedEvent deleted(Long bookId) {
+        return new BookChangedEvent(Type.DELETED, bookId, null);
+    }
+}
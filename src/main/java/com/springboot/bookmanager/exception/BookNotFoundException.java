@@ -0,0 +1,22 @@
+package com.springboot.bookmanager.exception;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * The one "Book Not Found" failure, preallocated and without a stack trace. Misses are an expected
+ * outcome that crawlers can make frequent, and the handler only ever reports the message, so walking
+ * the stack on every throw would be pure overhead. Being shared, the instance never carries a cause.
+ */
+public final class BookNotFoundException extends EntityNotFoundException {
+
+    public static final BookNotFoundException INSTANCE = new BookNotFoundException();
+
+    private BookNotFoundException() {
+        super("Book Not Found");
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -1,42 +1,82 @@
 package com.springboot.bookmanager.exception;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
-import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Maps exceptions to RFC 7807 problem details (see {@link Problems}) and counts them in
+ * {@code bookmanager.errors}, tagged by exception type and status. Book lookups that miss answer 404
+ * without throwing and count themselves in the same series, as {@code BookNotFoundException}.
+ */
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Each exception type is always answered with the same status, so its counter can be looked up once.
+    private final Map<Class<?>, Counter> errorCounters = new ConcurrentHashMap<>();
+
     @ExceptionHandler(EntityNotFoundException.class)
-    public ResponseEntity<ErrorResponseDto> handleEntityNotFound(EntityNotFoundException ex) {
-        ErrorResponseDto ErrorResponseDto = new ErrorResponseDto();
-        ErrorResponseDto.setMessage("Entity not found: "+ ex.getMessage());
-        ErrorResponseDto.setTimestamp(LocalDateTime.now().toString());
-        ErrorResponseDto.setErrorCode(String.valueOf(HttpStatus.NOT_FOUND));
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ErrorResponseDto);
+    public ResponseEntity<ProblemDetail> handleEntityNotFound(EntityNotFoundException ex) {
+        return problem(ex, HttpStatus.NOT_FOUND, "Entity not found", ex.getMessage());
     }
 
     @ExceptionHandler(ConstraintViolationException.class)
-    public ResponseEntity<ErrorResponseDto> handleConstraintViolation(ConstraintViolationException ex) {
-        ErrorResponseDto ErrorResponseDto = new ErrorResponseDto();
-        ErrorResponseDto.setMessage("Validation failed: "+ ex.getMessage());
-        ErrorResponseDto.setTimestamp(LocalDateTime.now().toString());
-        ErrorResponseDto.setErrorCode(String.valueOf(HttpStatus.BAD_REQUEST));
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ErrorResponseDto);
+    public ResponseEntity<ProblemDetail> handleConstraintViolation(ConstraintViolationException ex) {
+        return problem(ex, HttpStatus.BAD_REQUEST, "Validation failed", ex.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ProblemDetail> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        return problem(ex, HttpStatus.CONFLICT, "Concurrent modification", "The Book was updated by another request");
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ProblemDetail> handlePreconditionFailed(PreconditionFailedException ex) {
+        return problem(ex, HttpStatus.PRECONDITION_FAILED, "Precondition failed", ex.getMessage());
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ProblemDetail> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        return problem(ex, HttpStatus.CONFLICT, "Conflicting data", ex.getMostSpecificCause().getMessage());
+    }
+
+    @ExceptionHandler(JsonProcessingException.class)
+    public ResponseEntity<ProblemDetail> handleMalformedBody(JsonProcessingException ex) {
+        return problem(ex, HttpStatus.BAD_REQUEST, "Malformed request body", ex.getOriginalMessage());
+    }
+
+    @ExceptionHandler(WriteQueueFullException.class)
+    public ResponseEntity<ProblemDetail> handleWriteQueueFull(WriteQueueFullException ex) {
+        ResponseEntity<ProblemDetail> response = problem(ex, HttpStatus.SERVICE_UNAVAILABLE, "Write queue full", ex.getMessage());
+        return ResponseEntity.status(response.getStatusCode()).header(HttpHeaders.RETRY_AFTER, "1").body(response.getBody());
     }
 
     @ExceptionHandler(RuntimeException.class)
-    public ResponseEntity<ErrorResponseDto> handleRuntimeException(RuntimeException ex) {
-        ErrorResponseDto ErrorResponseDto = new ErrorResponseDto();
-        ErrorResponseDto.setMessage("Internal server error: "+ ex.getMessage());
-        ErrorResponseDto.setTimestamp(LocalDateTime.now().toString());
-        ErrorResponseDto.setErrorCode(String.valueOf(HttpStatus.INTERNAL_SERVER_ERROR));
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ErrorResponseDto);
+    public ResponseEntity<ProblemDetail> handleRuntimeException(RuntimeException ex) {
+        return problem(ex, HttpStatus.INTERNAL_SERVER_ERROR, "Internal server error", ex.getMessage());
     }
 
+    private ResponseEntity<ProblemDetail> problem(Exception ex, HttpStatus status, String title, String detail) {
+        errorCounters.computeIfAbsent(ex.getClass(), type -> meterRegistry.counter("bookmanager.errors",
+                "exception", type.getSimpleName(),
+                "status", String.valueOf(status.value()))).increment();
+        return ResponseEntity.of(Problems.of(status, title, detail)).build();
+    }
 }
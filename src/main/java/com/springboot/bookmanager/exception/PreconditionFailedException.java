@@ -0,0 +1,11 @@
+package com.springboot.bookmanager.exception;
+
+/**
+ * Thrown when a conditional write ({@code If-Match}) targets a version of a resource that is no longer current.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,45 @@
+package com.springboot.bookmanager.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Builds the RFC 7807 problem details returned for every error. Besides the standard members each
+ * problem carries a {@code timestamp}, formatted at most once per second and shared by all the errors
+ * raised within that second.
+ */
+public final class Problems {
+
+    private record Timestamp(long epochSecond, String formatted) {
+    }
+
+    private static volatile Timestamp timestamp = format(System.currentTimeMillis() / 1000);
+
+    private Problems() {
+    }
+
+    public static ProblemDetail of(HttpStatus status, String title, String detail) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, detail);
+        problem.setTitle(title);
+        problem.setProperty("timestamp", timestamp(System.currentTimeMillis()));
+        return problem;
+    }
+
+    static String timestamp(long epochMillis) {
+        long epochSecond = epochMillis / 1000;
+        Timestamp current = timestamp;
+        if (current.epochSecond() != epochSecond) {
+            // Racing threads may both format the new second; either result is correct.
+            current = format(epochSecond);
+            timestamp = current;
+        }
+        return current.formatted();
+    }
+
+    private static Timestamp format(long epochSecond) {
+        return new Timestamp(epochSecond, DateTimeFormatter.ISO_INSTANT.format(Instant.ofEpochSecond(epochSecond)));
+    }
+}
@@ -0,0 +1,11 @@
+package com.springboot.bookmanager.exception;
+
+/**
+ * Thrown when an asynchronous write cannot be queued because the write queue is full or shutting down.
+ */
+public class WriteQueueFullException extends RuntimeException {
+
+    public WriteQueueFullException(String message) {
+        super(message);
+    }
+}
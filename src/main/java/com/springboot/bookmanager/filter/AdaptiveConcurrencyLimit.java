@@ -0,0 +1,112 @@
+package com.springboot.bookmanager.filter;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit that adapts to observed latency (additive increase, multiplicative decrease).
+ * <p>
+ * Each completed request is a sample. A request slower than the latency target, or one that failed
+ * with a server error, shrinks the limit by {@link #BACKOFF_RATIO}, at most once per target interval
+ * so a single slow burst does not collapse it. Once a full limit's worth of fast requests has completed
+ * while the limit was at least half used, the limit grows by one. The limit never leaves
+ * {@code [minLimit, maxLimit]}.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final ResizableSemaphore permits;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger fastSamples = new AtomicInteger();
+    private final AtomicLong lastDecrease = new AtomicLong(System.nanoTime());
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, Duration latencyTarget) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Expected 1 <= min-limit <= initial-limit <= max-limit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTarget.toNanos();
+        this.permits = new ResizableSemaphore(initialLimit);
+        this.limit = new AtomicInteger(initialLimit);
+    }
+
+    public boolean tryAcquire(Duration timeout) throws InterruptedException {
+        if (!permits.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            return false;
+        }
+        inFlight.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Returns the permit of a completed request and feeds its outcome into the limit.
+     */
+    public void release(long latencyNanos, boolean failed) {
+        int concurrent = inFlight.getAndDecrement();
+        permits.release();
+        if (failed || latencyNanos > latencyTargetNanos) {
+            decrease(System.nanoTime());
+        } else if (concurrent * 2 >= limit.get() && fastSamples.incrementAndGet() >= limit.get()) {
+            fastSamples.set(0);
+            increase();
+        }
+    }
+
+    /**
+     * Returns the permit of a request that left without a meaningful sample, such as one handed off to
+     * an asynchronous response.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+        permits.release();
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void increase() {
+        int current = limit.get();
+        if (current < maxLimit && limit.compareAndSet(current, current + 1)) {
+            permits.release();
+        }
+    }
+
+    void decrease(long now) {
+        long last = lastDecrease.get();
+        if (now - last < latencyTargetNanos || !lastDecrease.compareAndSet(last, now)) {
+            return;
+        }
+        int current = limit.get();
+        int next = Math.max(minLimit, (int) (current * BACKOFF_RATIO));
+        if (next < current && limit.compareAndSet(current, next)) {
+            fastSamples.set(0);
+            permits.shrink(current - next);
+        }
+    }
+
+    // Semaphore#reducePermits is protected; shrinking takes effect as in-flight permits are returned.
+    private static final class ResizableSemaphore extends Semaphore {
+
+        private ResizableSemaphore(int permits) {
+            super(permits, true);
+        }
+
+        private void shrink(int reduction) {
+            reducePermits(reduction);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.springboot.bookmanager.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Bounds the number of API requests in flight with an {@link AdaptiveConcurrencyLimit}. The limit starts
+ * at the size of the connection pool and then follows request latency, so when the database slows down
+ * fewer requests are let in rather than all of them queueing inside Hikari and timing out together.
+ * Excess requests wait briefly for a permit and are otherwise shed with 503 and a {@code Retry-After}
+ * hint.
+ */
+@Component
+@ConditionalOnProperty(name = "bookmanager.concurrency.enabled", havingValue = "true")
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AdaptiveConcurrencyLimit limit;
+    private final Duration acquireTimeout;
+    private Counter rejections;
+
+    public ConcurrencyLimitFilter(@Value("${bookmanager.concurrency.initial-limit}") int initialLimit,
+                                  @Value("${bookmanager.concurrency.min-limit}") int minLimit,
+                                  @Value("${bookmanager.concurrency.max-limit}") int maxLimit,
+                                  @Value("${bookmanager.concurrency.latency-target}") Duration latencyTarget,
+                                  @Value("${bookmanager.concurrency.acquire-timeout}") Duration acquireTimeout) {
+        this.limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, latencyTarget);
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("bookmanager.concurrency.in-flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("API requests currently holding a concurrency permit")
+                .register(meterRegistry);
+        Gauge.builder("bookmanager.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive limit on API requests in flight")
+                .register(meterRegistry);
+        rejections = Counter.builder("bookmanager.concurrency.rejections")
+                .description("API requests shed because the concurrency limit was reached")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = limit.tryAcquire(acquireTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            reject(request, response);
+            return;
+        }
+        long started = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Streams and long polls finish on another thread; their duration says nothing about load.
+                limit.release();
+            } else {
+                limit.release(System.nanoTime() - started, failed);
+            }
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        rejections.increment();
+        ErrorResponses.reject(objectMapper, request, response, HttpStatus.SERVICE_UNAVAILABLE,
+                "Service overloaded", "Too many requests in flight", 1);
+    }
+}
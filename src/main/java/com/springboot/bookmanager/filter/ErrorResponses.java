@@ -0,0 +1,33 @@
+package com.springboot.bookmanager.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.bookmanager.exception.Problems;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Writes the same problem details as {@code GlobalExceptionHandler} from filters, which run outside the
+ * dispatcher and so cannot go through it.
+ */
+final class ErrorResponses {
+
+    private ErrorResponses() {
+    }
+
+    static void reject(ObjectMapper objectMapper, HttpServletRequest request, HttpServletResponse response,
+                       HttpStatus status, String title, String detail, long retryAfterSeconds) throws IOException {
+        ProblemDetail problem = Problems.of(status, title, detail);
+        problem.setInstance(URI.create(request.getRequestURI()));
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), problem);
+    }
+}
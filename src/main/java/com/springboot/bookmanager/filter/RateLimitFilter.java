@@ -0,0 +1,148 @@
+package com.springboot.bookmanager.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client token bucket rate limiting, with separate budgets for reads and writes. A client is its
+ * remote address; the API key header is not authenticated, so it only splits an address's budget
+ * further: each key seen from an address gets its own bucket, and a request must pass both. Sending a
+ * new key per request therefore buys no extra burst. Behind a proxy, set
+ * {@code server.forward-headers-strategy} so the remote address is the client's rather than the proxy's.
+ * <p>
+ * Buckets live in bounded Caffeine caches, one for addresses and one for keys, and are dropped after ten
+ * idle minutes, by when they would be full again. A key bucket is only created for a request its address
+ * has admitted, so flooding the key cache is held to the address rate and cannot evict address buckets.
+ * <p>
+ * Ordered ahead of {@link ConcurrencyLimitFilter} so a throttled client is turned away with 429 before
+ * it can take, or queue for, one of the shared concurrency permits.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+@ConditionalOnProperty(name = "bookmanager.rate-limit.enabled", havingValue = "true")
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    enum EndpointClass { READ, WRITE }
+
+    // POST only because the id list may not fit in a query string; they change nothing.
+    private static final Set<String> READ_ONLY_POSTS = Set.of("/api/books/batch-get");
+
+    private record Budget(double permitsPerSecond, int burst) {
+    }
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final String clientHeader;
+    private final Map<EndpointClass, Budget> budgets;
+    private final Cache<String, TokenBucket> addressBuckets;
+    private final Cache<String, TokenBucket> keyBuckets;
+    private final Map<EndpointClass, Counter> allowed = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rejected = new EnumMap<>(EndpointClass.class);
+
+    public RateLimitFilter(@Value("${bookmanager.rate-limit.client-header}") String clientHeader,
+                           @Value("${bookmanager.rate-limit.read.permits-per-second}") double readRate,
+                           @Value("${bookmanager.rate-limit.read.burst}") int readBurst,
+                           @Value("${bookmanager.rate-limit.write.permits-per-second}") double writeRate,
+                           @Value("${bookmanager.rate-limit.write.burst}") int writeBurst,
+                           @Value("${bookmanager.rate-limit.max-clients}") long maxClients,
+                           MeterRegistry meterRegistry) {
+        this.clientHeader = clientHeader;
+        this.budgets = Map.of(
+                EndpointClass.READ, new Budget(readRate, readBurst),
+                EndpointClass.WRITE, new Budget(writeRate, writeBurst));
+        this.addressBuckets = newBucketCache(maxClients);
+        this.keyBuckets = newBucketCache(maxClients);
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            allowed.put(endpointClass, decisionCounter(meterRegistry, endpointClass, "allowed"));
+            rejected.put(endpointClass, decisionCounter(meterRegistry, endpointClass, "rejected"));
+        }
+        Gauge.builder("bookmanager.ratelimit.clients", addressBuckets, Cache::estimatedSize)
+                .description("Client address buckets currently tracked by the rate limiter")
+                .tag("scope", "address")
+                .register(meterRegistry);
+        Gauge.builder("bookmanager.ratelimit.clients", keyBuckets, Cache::estimatedSize)
+                .description("API key buckets currently tracked by the rate limiter")
+                .tag("scope", "key")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = classify(request);
+        long now = System.nanoTime();
+        String address = endpointClass.name() + ':' + request.getRemoteAddr();
+        long waitNanos = bucket(addressBuckets, address, endpointClass, now).tryAcquire(now);
+        String apiKey = request.getHeader(clientHeader);
+        if (waitNanos == 0 && apiKey != null && !apiKey.isBlank()) {
+            waitNanos = bucket(keyBuckets, address + ':' + apiKey, endpointClass, now).tryAcquire(now);
+        }
+        if (waitNanos > 0) {
+            rejected.get(endpointClass).increment();
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            ErrorResponses.reject(objectMapper, request, response, HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded",
+                    "Too many " + endpointClass.name().toLowerCase() + " requests", retryAfterSeconds);
+            return;
+        }
+        allowed.get(endpointClass).increment();
+        filterChain.doFilter(request, response);
+    }
+
+    static EndpointClass classify(HttpServletRequest request) {
+        String method = request.getMethod();
+        boolean read = HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method)
+                || HttpMethod.POST.matches(method) && READ_ONLY_POSTS.contains(request.getRequestURI());
+        return read ? EndpointClass.READ : EndpointClass.WRITE;
+    }
+
+    private TokenBucket bucket(Cache<String, TokenBucket> cache, String client, EndpointClass endpointClass, long now) {
+        return cache.get(client, key -> {
+            Budget budget = budgets.get(endpointClass);
+            return new TokenBucket(budget.permitsPerSecond(), budget.burst(), now);
+        });
+    }
+
+    private static Cache<String, TokenBucket> newBucketCache(long maxClients) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    private static Counter decisionCounter(MeterRegistry meterRegistry, EndpointClass endpointClass, String outcome) {
+        return Counter.builder("bookmanager.ratelimit.decisions")
+                .description("Rate limiter decisions by endpoint class and outcome")
+                .tags("class", endpointClass.name().toLowerCase(), "outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,48 @@
+package com.springboot.bookmanager.filter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its "virtual scheduling" form (GCRA): instead of a token count and a refill
+ * timestamp, the whole state is the theoretical arrival time of the next request, held in one
+ * {@link AtomicLong} and advanced with a single compare-and-set per admitted request.
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param permitsPerSecond sustained rate
+     * @param burst            requests that may be admitted at once from a full bucket
+     * @param now              current {@link System#nanoTime()}; the bucket starts full
+     */
+    public TokenBucket(double permitsPerSecond, int burst, long now) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstNanos = intervalNanos * burst;
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @return {@code 0} if the request is admitted, otherwise the nanoseconds until a token frees up
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.springboot.bookmanager.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
@@ -12,18 +17,30 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.util.Date;
 
 @Data
 @Entity
+@Table(name = "book", indexes = {
+        // Uniqueness among live books is enforced on the generated live_isbn column (V5 migration).
+        @Index(name = "ix_book_isbn", columnList = "isbn"),
+        @Index(name = "ix_book_author", columnList = "author, id"),
+        @Index(name = "ix_book_title", columnList = "title, id"),
+        @Index(name = "ix_book_deleted_at", columnList = "deleted_at")
+})
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
+// Soft-deleted books are invisible to every entity query; only native SQL sees their tombstones.
+@SQLRestriction("deleted_at IS NULL")
 public class Book {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Title cannot be empty")
@@ -43,6 +60,15 @@ public class Book {
     @Positive(message = "Price must be positive")
     private Double price;
 
+    @Version
+    private Long version;
+
+    @UpdateTimestamp
+    private Date lastModified;
+
+    @JsonIgnore
+    private Date deletedAt;
+
     public Book(long l, String testBook, String author, int i) {
     }
 }
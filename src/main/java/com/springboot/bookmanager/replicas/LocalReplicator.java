@@ -0,0 +1,176 @@
+package com.springboot.bookmanager.replicas;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.bookmanager.changes.BookChangeLog;
+import com.springboot.bookmanager.dto.BookChangeDto;
+import com.springboot.bookmanager.event.BookChangedEvent;
+import com.springboot.bookmanager.models.Book;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stands in for database replication when the replicas are local H2 databases. Each replica is migrated
+ * and loaded with a copy of the primary's books at startup, then kept up to date by replaying the change
+ * log: changes are applied in sequence order, each batch in one transaction together with the replica's
+ * {@code book_change_counter}, once they are older than {@code simulate.delay}.
+ */
+@Component
+@DependsOn("flywayInitializer")
+@ConditionalOnProperty(name = "bookmanager.replicas.simulate.enabled", havingValue = "true")
+public class LocalReplicator {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalReplicator.class);
+
+    private static final String BOOK_COLUMNS = "id, title, author, published_date, isbn, price, version, last_modified";
+    private static final String MERGE_BOOK = "MERGE INTO book (" + BOOK_COLUMNS + ") KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_CHANGE = "INSERT INTO book_change (seq, book_id, change_type, changed_at, payload) "
+            + "VALUES (?, ?, ?, ?, ?)";
+    private static final String SET_SEQ = "UPDATE book_change_counter SET last_seq = ? WHERE id = 1";
+    private static final int COPY_BATCH = 1000;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private ReplicaSet replicaSet;
+
+    @Autowired
+    private BookChangeLog bookChangeLog;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${spring.flyway.locations}")
+    private String[] migrationLocations;
+
+    @Value("${bookmanager.replicas.simulate.delay}")
+    private Duration delay;
+
+    @Value("${bookmanager.changes.batch-size}")
+    private int batchSize;
+
+    private final ScheduledExecutorService replicator = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("local-replicator").daemon().factory());
+
+    @PostConstruct
+    public void start() {
+        for (DataSource replica : replicaSet.replicas()) {
+            Flyway.configure().dataSource(replica).locations(migrationLocations).load().migrate();
+            copy(replica);
+        }
+        replicator.scheduleWithFixedDelay(this::replicate, 0, 50, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        replicator.shutdownNow();
+    }
+
+    /**
+     * Replaces the replica's books with the primary's. The sequence number is read first, so changes that
+     * commit during the copy are replayed on top of it; replaying one that was already copied is harmless.
+     */
+    private void copy(DataSource replica) {
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        JdbcTemplate target = new JdbcTemplate(replica);
+        long seq = bookChangeLog.latestSeq();
+        List<BookChangeDto> last = seq == 0 ? List.of() : bookChangeLog.changesSince(seq - 1, 1);
+        transaction(replica).executeWithoutResult(status -> {
+            target.update("DELETE FROM book");
+            target.update("DELETE FROM book_change");
+            List<Object[]> rows = new ArrayList<>(COPY_BATCH);
+            primary.query("SELECT " + BOOK_COLUMNS + " FROM book WHERE deleted_at IS NULL ORDER BY id", rs -> {
+                Object[] row = new Object[8];
+                for (int column = 0; column < row.length; column++) {
+                    row[column] = rs.getObject(column + 1);
+                }
+                rows.add(row);
+                if (rows.size() == COPY_BATCH) {
+                    target.batchUpdate(MERGE_BOOK, rows);
+                    rows.clear();
+                }
+            });
+            if (!rows.isEmpty()) {
+                target.batchUpdate(MERGE_BOOK, rows);
+            }
+            // The latest change is what the replica's catalogue version is built from.
+            last.forEach(change -> logChange(target, change));
+            target.update(SET_SEQ, seq);
+        });
+    }
+
+    private void replicate() {
+        long cutoff = System.currentTimeMillis() - delay.toMillis();
+        for (int replica = 0; replica < replicaSet.replicas().size(); replica++) {
+            DataSource dataSource = replicaSet.replicas().get(replica);
+            JdbcTemplate target = new JdbcTemplate(dataSource);
+            try {
+                long applied = target.queryForObject("SELECT last_seq FROM book_change_counter WHERE id = 1", Long.class);
+                List<BookChangeDto> changes = bookChangeLog.changesSince(applied, batchSize).stream()
+                        .takeWhile(change -> change.getChangedAt().getTime() <= cutoff)
+                        .toList();
+                if (changes.isEmpty()) {
+                    continue;
+                }
+                transaction(dataSource).executeWithoutResult(status -> {
+                    changes.forEach(change -> apply(target, change));
+                    target.update(SET_SEQ, changes.get(changes.size() - 1).getSeq());
+                });
+            } catch (RuntimeException e) {
+                log.warn("Replicating to replica {} failed", replica, e);
+            }
+        }
+    }
+
+    private void apply(JdbcTemplate target, BookChangeDto change) {
+        if (change.getType() == BookChangedEvent.Type.DELETED) {
+            target.update("DELETE FROM book WHERE id = ?", change.getBookId());
+        } else {
+            Book book = change.getBook();
+            target.update(MERGE_BOOK, book.getId(), book.getTitle(), book.getAuthor(), book.getPublishedDate(),
+                    book.getIsbn(), book.getPrice(), book.getVersion() == null ? 0 : book.getVersion(),
+                    new Timestamp((book.getLastModified() == null ? change.getChangedAt() : book.getLastModified()).getTime()));
+        }
+        logChange(target, change);
+    }
+
+    private void logChange(JdbcTemplate target, BookChangeDto change) {
+        target.update(INSERT_CHANGE, change.getSeq(), change.getBookId(), change.getType().name(),
+                new Timestamp(change.getChangedAt().getTime()), change.getBook() == null ? null : writeBook(change.getBook()));
+    }
+
+    private static TransactionTemplate transaction(DataSource dataSource) {
+        return new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    private String writeBook(Book book) {
+        try {
+            return objectMapper.writeValueAsString(book);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.springboot.bookmanager.replicas;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread routing state for read-only transactions, consulted by {@link ReplicaRoutingDataSource}.
+ * <p>
+ * Within a request ({@link #beginRequest} to {@link #endRequest}) the first read picks a replica that has
+ * applied at least the request's required sequence number, and every later read of the request goes to the
+ * same one, so a list page and its catalogue version always come from the same copy of the data. A commit
+ * made by the request raises the required sequence number and drops the pinned replica.
+ * <p>
+ * Does nothing unless replicas are enabled; without {@link ReplicaRoutingDataSource} nobody reads it.
+ */
+public final class ReadRouting {
+
+    static final int PRIMARY = -1;
+
+    private static final class RequestState {
+        private long requiredSeq;
+        private int target;
+        private boolean pinned;
+    }
+
+    private static final ThreadLocal<RequestState> REQUEST = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    /**
+     * @param requiredSeq change sequence number the caller has already seen committed, 0 if none
+     */
+    public static void beginRequest(long requiredSeq) {
+        RequestState state = new RequestState();
+        state.requiredSeq = requiredSeq;
+        REQUEST.set(state);
+    }
+
+    public static void endRequest() {
+        REQUEST.remove();
+    }
+
+    /**
+     * Records a commit of the current request: later reads must see at least {@code seq}.
+     */
+    public static void wrote(long seq) {
+        RequestState state = REQUEST.get();
+        if (state != null && seq > state.requiredSeq) {
+            state.requiredSeq = seq;
+            state.pinned = false;
+        }
+    }
+
+    /**
+     * Runs {@code reads} against the primary even where they are read-only. It must enclose the first
+     * statement of the transaction, since that is when the connection is chosen.
+     */
+    public static <T> T onPrimary(Supplier<T> reads) {
+        boolean outermost = PRIMARY_ONLY.get() == null;
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            if (outermost) {
+                PRIMARY_ONLY.remove();
+            }
+        }
+    }
+
+    public static void onPrimary(Runnable reads) {
+        onPrimary(() -> {
+            reads.run();
+            return null;
+        });
+    }
+
+    /**
+     * @return index of the replica for the next read-only connection, or {@link #PRIMARY}
+     */
+    static int route(ReplicaSet replicas) {
+        if (PRIMARY_ONLY.get() != null) {
+            return PRIMARY;
+        }
+        RequestState state = REQUEST.get();
+        if (state == null) {
+            return replicas.choose(0);
+        }
+        if (!state.pinned) {
+            state.target = replicas.choose(state.requiredSeq);
+            state.pinned = true;
+        }
+        return state.target;
+    }
+}
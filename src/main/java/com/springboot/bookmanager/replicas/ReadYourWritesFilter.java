@@ -0,0 +1,106 @@
+package com.springboot.bookmanager.replicas;
+
+import com.springboot.bookmanager.changes.BookChangeLog;
+import com.springboot.bookmanager.event.BookChangedEvent;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Read-your-writes for clients of replicated reads. When a request commits book changes, the response
+ * carries a cookie with the change sequence number of the commit; for {@code sticky-for} afterwards, the
+ * client's reads only go to replicas that have applied it, and to the primary while none has.
+ */
+@Component
+@ConditionalOnProperty(name = "bookmanager.replicas.enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "bookmanager-seq";
+
+    @Autowired
+    private BookChangeLog bookChangeLog;
+
+    @Value("${bookmanager.replicas.sticky-for}")
+    private Duration stickyFor;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ReadRouting.beginRequest(requiredSeq(request));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadRouting.endRequest();
+        }
+    }
+
+    /**
+     * Registers, once per transaction, a callback that remembers the commit for the rest of the request
+     * and for the client.
+     */
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (RequestContextHolder.getRequestAttributes() == null
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(ReadYourWritesFilter.this);
+                if (status == STATUS_COMMITTED) {
+                    rememberCommit();
+                }
+            }
+        });
+    }
+
+    private void rememberCommit() {
+        // Not read-only, so this reads the primary and sees the commit just made.
+        long seq = bookChangeLog.latestSeq();
+        ReadRouting.wrote(seq);
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletResponse response = attributes.getResponse();
+            if (response != null && !response.isCommitted()) {
+                Cookie cookie = new Cookie(COOKIE, Long.toString(seq));
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                cookie.setMaxAge((int) stickyFor.toSeconds());
+                response.addCookie(cookie);
+            }
+        }
+    }
+
+    private static long requiredSeq(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE.equals(cookie.getName())) {
+                    try {
+                        return Long.parseLong(cookie.getValue());
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+}
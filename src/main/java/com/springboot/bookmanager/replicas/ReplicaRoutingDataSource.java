@@ -0,0 +1,35 @@
+package com.springboot.bookmanager.replicas;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out connections for read-only transactions: from the replica chosen by {@link ReadRouting}, or
+ * from the primary when no replica qualifies.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaSet replicaSet;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaSet replicaSet) {
+        this.replicaSet = replicaSet;
+        List<DataSource> replicas = replicaSet.replicas();
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        initialize();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        int target = ReadRouting.route(replicaSet);
+        return target == ReadRouting.PRIMARY ? null : target;
+    }
+}
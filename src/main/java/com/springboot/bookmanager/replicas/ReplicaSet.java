@@ -0,0 +1,135 @@
+package com.springboot.bookmanager.replicas;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The read replicas and how far each one is behind the primary.
+ * <p>
+ * Every {@code lag-check-interval} the {@code book_change_counter} of each replica is compared with the
+ * primary's. A replica that has applied every change has no lag; otherwise its lag is the age of the
+ * oldest change it has not applied yet. Replicas count as unavailable until first checked and whenever
+ * the check fails.
+ */
+public class ReplicaSet implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaSet.class);
+
+    private static final String LAST_SEQ = "SELECT last_seq FROM book_change_counter WHERE id = 1";
+
+    private record Status(long appliedSeq, long lagMillis) {
+
+        static final Status UNAVAILABLE = new Status(-1, Long.MAX_VALUE);
+    }
+
+    private final JdbcTemplate primary;
+    private final List<DataSource> replicas;
+    private final List<JdbcTemplate> replicaTemplates;
+    private final long maxLagMillis;
+    private final Duration checkInterval;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService checker = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("replica-lag-check").daemon().factory());
+    private volatile Status[] statuses;
+
+    public ReplicaSet(DataSource primary, List<DataSource> replicas, Duration maxLag, Duration checkInterval) {
+        this.primary = new JdbcTemplate(primary);
+        this.replicas = List.copyOf(replicas);
+        this.replicaTemplates = this.replicas.stream().map(JdbcTemplate::new).toList();
+        this.maxLagMillis = maxLag.toMillis();
+        this.checkInterval = checkInterval;
+        Status[] initial = new Status[replicas.size()];
+        Arrays.fill(initial, Status.UNAVAILABLE);
+        this.statuses = initial;
+    }
+
+    public void start() {
+        checker.scheduleWithFixedDelay(this::check, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public List<DataSource> replicas() {
+        return replicas;
+    }
+
+    /**
+     * @return seconds the replica is behind the primary, {@code NaN} while it is unavailable
+     */
+    public double lagSeconds(int replica) {
+        Status status = statuses[replica];
+        return status == Status.UNAVAILABLE ? Double.NaN : status.lagMillis() / 1000.0;
+    }
+
+    /**
+     * Picks, round robin, a replica within the lag tolerance that has applied at least {@code minSeq}.
+     *
+     * @return the replica's index, or {@link ReadRouting#PRIMARY} if none qualifies
+     */
+    int choose(long minSeq) {
+        Status[] current = statuses;
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(current.length, 1));
+        for (int i = 0; i < current.length; i++) {
+            int replica = (start + i) % current.length;
+            Status status = current[replica];
+            if (status.lagMillis() <= maxLagMillis && status.appliedSeq() >= minSeq) {
+                return replica;
+            }
+        }
+        return ReadRouting.PRIMARY;
+    }
+
+    void check() {
+        Status[] updated = new Status[replicaTemplates.size()];
+        Arrays.fill(updated, Status.UNAVAILABLE);
+        try {
+            long primarySeq = primary.queryForObject(LAST_SEQ, Long.class);
+            long now = System.currentTimeMillis();
+            for (int replica = 0; replica < updated.length; replica++) {
+                try {
+                    long applied = replicaTemplates.get(replica).queryForObject(LAST_SEQ, Long.class);
+                    updated[replica] = new Status(applied, applied >= primarySeq ? 0 : now - oldestPending(applied));
+                } catch (DataAccessException e) {
+                    log.debug("Replica {} is unavailable", replica, e);
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not read the primary's change sequence; routing all reads to it", e);
+        }
+        statuses = updated;
+    }
+
+    // Package-private for tests.
+    void update(int replica, long appliedSeq, long lagMillis) {
+        Status[] updated = statuses.clone();
+        updated[replica] = new Status(appliedSeq, lagMillis);
+        statuses = updated;
+    }
+
+    private long oldestPending(long appliedSeq) {
+        List<Timestamp> changedAt = primary.queryForList("SELECT changed_at FROM book_change WHERE seq = ?",
+                Timestamp.class, appliedSeq + 1);
+        // The next change is always logged; if it is not visible yet, treat the replica as far behind.
+        return changedAt.isEmpty() ? 0 : changedAt.get(0).getTime();
+    }
+
+    @Override
+    public void close() throws Exception {
+        checker.shutdownNow();
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
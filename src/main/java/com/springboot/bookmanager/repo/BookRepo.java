@@ -1,8 +1,68 @@
 package com.springboot.bookmanager.repo;
 
+import com.springboot.bookmanager.dto.BookView;
 import com.springboot.bookmanager.models.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface BookRepo extends JpaRepository<Book, Long> {
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+public interface BookRepo extends JpaRepository<Book, Long>, BookRepoCustom {
+
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    Optional<Book> findByIsbn(String isbn);
+
+    @Query("select new com.springboot.bookmanager.dto.BookView(b.id, b.title, b.author, b.publishedDate, b.isbn, b.price, b.version) "
+            + "from Book b where b.id > :after order by b.id")
+    List<BookView> findViewsAfter(@Param("after") Long after, Limit limit);
+
+    List<Book> findByAuthorAndIdGreaterThanOrderByIdAsc(String author, Long id, Limit limit);
+
+    List<Book> findByTitleStartingWithAndIdGreaterThanOrderByIdAsc(String titlePrefix, Long id, Limit limit);
+
+    List<Book> findByAuthorAndTitleStartingWithAndIdGreaterThanOrderByIdAsc(String author, String titlePrefix, Long id, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select b from Book b order by b.id")
+    Stream<Book> streamAllByOrderByIdAsc();
+
+    /**
+     * Turns the book into a tombstone. The version is bumped so tags handed out before the delete do not
+     * match the book if it is restored.
+     */
+    @Modifying
+    @Query("update Book b set b.deletedAt = :deletedAt, b.version = b.version + 1 where b.id = :id and b.deletedAt is null")
+    int softDeleteById(@Param("id") Long id, @Param("deletedAt") Date deletedAt);
+
+    @Modifying
+    @Query("update Book b set b.deletedAt = :deletedAt, b.version = b.version + 1 "
+            + "where b.id = :id and b.version = :version and b.deletedAt is null")
+    int softDeleteByIdAndVersion(@Param("id") Long id, @Param("version") Long version, @Param("deletedAt") Date deletedAt);
+
+    // Native, because the entity restriction hides exactly the rows these two work on.
+    @Modifying
+    @Query(value = "UPDATE book SET deleted_at = NULL, version = version + 1, last_modified = :restoredAt "
+            + "WHERE id = :id AND deleted_at IS NOT NULL", nativeQuery = true)
+    int restoreById(@Param("id") Long id, @Param("restoredAt") Date restoredAt);
+
+    /**
+     * Hard-deletes up to {@code limit} of the tombstones created before {@code deletedBefore}, oldest first.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM book WHERE id IN (SELECT id FROM book WHERE deleted_at < :deletedBefore "
+            + "ORDER BY deleted_at LIMIT :limit)", nativeQuery = true)
+    int purgeDeleted(@Param("deletedBefore") Date deletedBefore, @Param("limit") int limit);
 }
@@ -0,0 +1,31 @@
+package com.springboot.bookmanager.repo;
+
+import com.springboot.bookmanager.dto.BookPatchDto;
+import com.springboot.bookmanager.dto.BookRangeFilter;
+import com.springboot.bookmanager.dto.PriceGrouping;
+import com.springboot.bookmanager.dto.PriceStatsDto;
+import com.springboot.bookmanager.models.Book;
+
+import java.util.List;
+
+public interface BookRepoCustom {
+
+    /**
+     * Writes only the columns present in the patch, bumping the version, in a single UPDATE statement.
+     *
+     * @param expectedVersion if not {@code null}, the update only applies while the row is still at this version
+     * @return the number of rows updated
+     */
+    int patchBook(Long id, Long expectedVersion, BookPatchDto patch);
+
+    /**
+     * Keyset page of the books matching the price and publication-date bounds, ordered by id.
+     */
+    List<Book> findInRange(BookRangeFilter filter, long after, int limit);
+
+    /**
+     * Count, min, max, average and percentiles of the price per author or publication year, computed in
+     * the database over the books matching the filter.
+     */
+    List<PriceStatsDto> aggregatePrices(BookRangeFilter filter, PriceGrouping grouping, int limit);
+}
@@ -0,0 +1,141 @@
+package com.springboot.bookmanager.repo;
+
+import com.springboot.bookmanager.dto.BookPatchDto;
+import com.springboot.bookmanager.dto.BookRangeFilter;
+import com.springboot.bookmanager.dto.PriceGrouping;
+import com.springboot.bookmanager.dto.PriceStatsDto;
+import com.springboot.bookmanager.models.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+public class BookRepoCustomImpl implements BookRepoCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int patchBook(Long id, Long expectedVersion, BookPatchDto patch) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Book> update = cb.createCriteriaUpdate(Book.class);
+        Root<Book> book = update.from(Book.class);
+
+        if (patch.getTitle() != null) {
+            update.set(book.<String>get("title"), patch.getTitle());
+        }
+        if (patch.getAuthor() != null) {
+            update.set(book.<String>get("author"), patch.getAuthor());
+        }
+        if (patch.getPublishedDate() != null) {
+            update.set(book.<Date>get("publishedDate"), patch.getPublishedDate());
+        }
+        if (patch.getIsbn() != null) {
+            update.set(book.<String>get("isbn"), patch.getIsbn());
+        }
+        if (patch.getPrice() != null) {
+            update.set(book.<Double>get("price"), patch.getPrice());
+        }
+        update.set(book.<Long>get("version"), cb.sum(book.<Long>get("version"), 1L));
+        // Bulk updates bypass @UpdateTimestamp, so the modification time is set here.
+        update.set(book.<Date>get("lastModified"), new Date());
+
+        Predicate where = cb.and(cb.equal(book.get("id"), id), cb.isNull(book.get("deletedAt")));
+        if (expectedVersion != null) {
+            where = cb.and(where, cb.equal(book.get("version"), expectedVersion));
+        }
+        update.where(where);
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public List<Book> findInRange(BookRangeFilter filter, long after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = cb.createQuery(Book.class);
+        Root<Book> book = query.from(Book.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.greaterThan(book.<Long>get("id"), after));
+        if (filter.getMinPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(book.<Double>get("price"), filter.getMinPrice()));
+        }
+        if (filter.getMaxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(book.<Double>get("price"), filter.getMaxPrice()));
+        }
+        if (filter.getPublishedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(book.<Date>get("publishedDate"), new Date(filter.publishedFromMillis())));
+        }
+        if (filter.getPublishedTo() != null) {
+            predicates.add(cb.lessThan(book.<Date>get("publishedDate"), new Date(filter.publishedToExclusiveMillis())));
+        }
+        query.select(book).where(predicates.toArray(new Predicate[0])).orderBy(cb.asc(book.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<PriceStatsDto> aggregatePrices(BookRangeFilter filter, PriceGrouping grouping, int limit) {
+        String groupKey = grouping == PriceGrouping.AUTHOR
+                ? "author"
+                : "CAST(EXTRACT(YEAR FROM published_date) AS VARCHAR)";
+
+        StringBuilder sql = new StringBuilder()
+                .append("SELECT ").append(groupKey).append(", COUNT(*), MIN(price), MAX(price), AVG(price), ")
+                .append("PERCENTILE_CONT(0.5) WITHIN GROUP (ORDER BY price), ")
+                .append("PERCENTILE_CONT(0.9) WITHIN GROUP (ORDER BY price), ")
+                .append("PERCENTILE_CONT(0.99) WITHIN GROUP (ORDER BY price) ")
+                .append("FROM book WHERE deleted_at IS NULL");
+        List<Object> parameters = new ArrayList<>();
+        if (filter.getMinPrice() != null) {
+            sql.append(" AND price >= ?");
+            parameters.add(filter.getMinPrice());
+        }
+        if (filter.getMaxPrice() != null) {
+            sql.append(" AND price <= ?");
+            parameters.add(filter.getMaxPrice());
+        }
+        if (filter.getPublishedFrom() != null) {
+            sql.append(" AND published_date >= ?");
+            parameters.add(new Timestamp(filter.publishedFromMillis()));
+        }
+        if (filter.getPublishedTo() != null) {
+            sql.append(" AND published_date < ?");
+            parameters.add(new Timestamp(filter.publishedToExclusiveMillis()));
+        }
+        sql.append(" GROUP BY ").append(groupKey).append(" ORDER BY 1");
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        for (int i = 0; i < parameters.size(); i++) {
+            query.setParameter(i + 1, parameters.get(i));
+        }
+        query.setMaxResults(limit);
+
+        List<PriceStatsDto> stats = new ArrayList<>();
+        for (Object row : query.getResultList()) {
+            Object[] columns = (Object[]) row;
+            stats.add(PriceStatsDto.builder()
+                    .group(String.valueOf(columns[0]))
+                    .count(((Number) columns[1]).longValue())
+                    .min(toDouble(columns[2]))
+                    .max(toDouble(columns[3]))
+                    .avg(toDouble(columns[4]))
+                    .p50(toDouble(columns[5]))
+                    .p90(toDouble(columns[6]))
+                    .p99(toDouble(columns[7]))
+                    .build());
+        }
+        return stats;
+    }
+
+    private static Double toDouble(Object value) {
+        return value == null ? null : ((Number) value).doubleValue();
+    }
+}
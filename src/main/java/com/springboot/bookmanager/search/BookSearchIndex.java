@@ -0,0 +1,313 @@
+package com.springboot.bookmanager.search;
+
+import com.springboot.bookmanager.dto.SearchHitDto;
+import com.springboot.bookmanager.dto.SearchIndexStatsDto;
+import com.springboot.bookmanager.dto.SearchResultDto;
+import com.springboot.bookmanager.event.BookChangedEvent;
+import com.springboot.bookmanager.models.Book;
+import com.springboot.bookmanager.replicas.ReadRouting;
+import com.springboot.bookmanager.service.BookService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over book titles and authors for search-as-you-type.
+ * <p>
+ * Terms are lower-cased word tokens kept in a sorted map, so a prefix query is a range scan over the
+ * term dictionary. Every query token must match (AND semantics); a token matches exactly, as a prefix of
+ * a longer term, or, when nothing else matches, a term one edit away. Title hits weigh more than author
+ * hits. The index is built from the database once the application is ready and then follows
+ * {@link BookChangedEvent}s; it never holds more than {@code bookmanager.search.max-documents} books.
+ */
+@Component
+public class BookSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(BookSearchIndex.class);
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final int TITLE_WEIGHT = 2;
+    private static final int AUTHOR_WEIGHT = 1;
+    private static final double PREFIX_FACTOR = 0.7;
+    private static final double FUZZY_FACTOR = 0.5;
+    private static final int MAX_TERM_EXPANSIONS = 256;
+    private static final int MAX_FUZZY_CANDIDATES = 4096;
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    // Rough per-entry heap costs used for the reported memory estimate.
+    private static final long BYTES_PER_TERM = 160;
+    private static final long BYTES_PER_POSTING = 64;
+    private static final long BYTES_PER_DOCUMENT = 96;
+
+    @Autowired
+    private BookService bookService;
+
+    @Value("${bookmanager.search.max-documents:1000000}")
+    private int maxDocuments;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final NavigableMap<String, Map<Long, Integer>> terms = new TreeMap<>();
+    private final AtomicLong droppedDocuments = new AtomicLong();
+    private long postings;
+    private long documentChars;
+    private volatile boolean ready;
+
+    private record Document(String title, String author, String[] terms) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        clear();
+        // From the primary: the events that keep this up to date from now on are the primary's commits.
+        ReadRouting.onPrimary(() -> bookService.streamAllBooks(this::index));
+        ready = true;
+        log.info("Search index built with {} documents in {} ms",
+                documents.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getType() == BookChangedEvent.Type.DELETED) {
+            remove(event.getBookId());
+        } else {
+            index(event.getBook());
+        }
+    }
+
+    public void index(Book book) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String term : tokenize(book.getTitle())) {
+            weights.merge(term, TITLE_WEIGHT, (a, b) -> a | b);
+        }
+        for (String term : tokenize(book.getAuthor())) {
+            weights.merge(term, AUTHOR_WEIGHT, (a, b) -> a | b);
+        }
+
+        Long id = book.getId();
+        lock.writeLock().lock();
+        try {
+            Document previous = documents.get(id);
+            if (previous != null) {
+                unindex(id, previous);
+            } else if (documents.size() >= maxDocuments) {
+                droppedDocuments.incrementAndGet();
+                return;
+            }
+            weights.forEach((term, weight) -> {
+                terms.computeIfAbsent(term, k -> new HashMap<>()).put(id, weight);
+                postings++;
+            });
+            Document document = new Document(book.getTitle(), book.getAuthor(), weights.keySet().toArray(new String[0]));
+            documents.put(id, document);
+            documentChars += length(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Document previous = documents.remove(id);
+            if (previous != null) {
+                unindex(id, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            documents.clear();
+            terms.clear();
+            postings = 0;
+            documentChars = 0;
+            droppedDocuments.set(0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public SearchResultDto search(String query, int page, int size) {
+        List<String> tokens = tokenize(query);
+        List<SearchHitDto> hits = new ArrayList<>();
+        int total = 0;
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = tokens.isEmpty() ? Map.of() : null;
+            for (String token : tokens) {
+                Map<Long, Double> tokenScores = score(token);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort((a, b) -> {
+                int byScore = Double.compare(b.getValue(), a.getValue());
+                return byScore != 0 ? byScore : Long.compare(a.getKey(), b.getKey());
+            });
+            total = ranked.size();
+            int from = (int) Math.min((long) page * size, total);
+            int to = Math.min(from + size, total);
+            for (Map.Entry<Long, Double> entry : ranked.subList(from, to)) {
+                Document document = documents.get(entry.getKey());
+                hits.add(SearchHitDto.builder()
+                        .id(entry.getKey())
+                        .title(document.title())
+                        .author(document.author())
+                        .score(entry.getValue())
+                        .build());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return SearchResultDto.builder()
+                .total(total)
+                .page(page)
+                .size(size)
+                .hits(hits)
+                .build();
+    }
+
+    public SearchIndexStatsDto stats() {
+        lock.readLock().lock();
+        try {
+            return SearchIndexStatsDto.builder()
+                    .ready(ready)
+                    .documents(documents.size())
+                    .maxDocuments(maxDocuments)
+                    .droppedDocuments(droppedDocuments.get())
+                    .terms(terms.size())
+                    .postings(postings)
+                    .estimatedBytes(terms.size() * BYTES_PER_TERM
+                            + postings * BYTES_PER_POSTING
+                            + documents.size() * BYTES_PER_DOCUMENT
+                            + documentChars * 2)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> score(String token) {
+        Map<Long, Double> scores = new HashMap<>();
+        int expansions = 0;
+        for (Map.Entry<String, Map<Long, Integer>> term : prefixRange(token).entrySet()) {
+            double factor = term.getKey().length() == token.length() ? 1.0 : PREFIX_FACTOR;
+            accumulate(scores, term.getValue(), factor);
+            if (++expansions >= MAX_TERM_EXPANSIONS) {
+                break;
+            }
+        }
+        if (scores.isEmpty() && token.length() >= MIN_FUZZY_LENGTH) {
+            int candidates = 0;
+            for (Map.Entry<String, Map<Long, Integer>> term : prefixRange(token.substring(0, 2)).entrySet()) {
+                if (withinOneEdit(token, term.getKey())) {
+                    accumulate(scores, term.getValue(), FUZZY_FACTOR);
+                }
+                if (++candidates >= MAX_FUZZY_CANDIDATES) {
+                    break;
+                }
+            }
+        }
+        return scores;
+    }
+
+    private NavigableMap<String, Map<Long, Integer>> prefixRange(String prefix) {
+        return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private void accumulate(Map<Long, Double> scores, Map<Long, Integer> postingList, double factor) {
+        postingList.forEach((id, weight) -> scores.merge(id, weight * factor, Math::max));
+    }
+
+    private void unindex(Long id, Document document) {
+        for (String term : document.terms()) {
+            Map<Long, Integer> postingList = terms.get(term);
+            if (postingList != null && postingList.remove(id) != null) {
+                postings--;
+                if (postingList.isEmpty()) {
+                    terms.remove(term);
+                }
+            }
+        }
+        documentChars -= length(document);
+    }
+
+    private static long length(Document document) {
+        return (document.title() == null ? 0 : document.title().length())
+                + (document.author() == null ? 0 : document.author().length());
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    static boolean withinOneEdit(String a, String b) {
+        int la = a.length();
+        int lb = b.length();
+        if (Math.abs(la - lb) > 1) {
+            return false;
+        }
+        int i = 0;
+        int j = 0;
+        int edits = 0;
+        while (i < la && j < lb) {
+            if (a.charAt(i) == b.charAt(j)) {
+                i++;
+                j++;
+                continue;
+            }
+            if (++edits > 1) {
+                return false;
+            }
+            if (la > lb) {
+                i++;
+            } else if (lb > la) {
+                j++;
+            } else {
+                i++;
+                j++;
+            }
+        }
+        return edits + (la - i) + (lb - j) <= 1;
+    }
+}
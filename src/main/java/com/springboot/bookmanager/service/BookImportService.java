@@ -0,0 +1,174 @@
+package com.springboot.bookmanager.service;
+
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvFactory;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.springboot.bookmanager.dto.BulkImportErrorDto;
+import com.springboot.bookmanager.dto.BulkImportResultDto;
+import com.springboot.bookmanager.event.BookChangedEvent;
+import com.springboot.bookmanager.models.Book;
+import com.springboot.bookmanager.repo.BookRepo;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a JSON array, NDJSON or CSV feed of books into the database in fixed-size chunks.
+ * Each chunk is validated, persisted with batched inserts and committed on its own, so a
+ * bad record is reported back instead of rolling back the whole feed. A feed that cannot be
+ * parsed any further stops the import; the chunks before it stay committed and the failing
+ * position is reported as the last error.
+ */
+@Service
+@Timed(value = "bookmanager.service", histogram = true)
+public class BookImportService {
+
+    @Autowired
+    private BookRepo bookRepo;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${bookmanager.import.chunk-size:500}")
+    private int chunkSize;
+
+    public BulkImportResultDto importBooks(InputStream body) throws IOException {
+        return importBooks(objectMapper.readerFor(Book.class), body);
+    }
+
+    /**
+     * Imports a CSV feed whose header row names the book properties, e.g.
+     * {@code title,author,isbn,publishedDate,price}. Empty cells are read as missing values.
+     */
+    public BulkImportResultDto importCsv(InputStream body) throws IOException {
+        // Same modules and settings as the JSON mapper, with a CSV parser underneath.
+        ObjectReader reader = objectMapper.copyWith(new CsvFactory())
+                .readerFor(Book.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .with(CsvParser.Feature.EMPTY_STRING_AS_NULL);
+        return importBooks(reader, body);
+    }
+
+    private BulkImportResultDto importBooks(ObjectReader reader, InputStream body) throws IOException {
+        List<BulkImportErrorDto> errors = new ArrayList<>();
+        List<Book> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkIndexes = new ArrayList<>(chunkSize);
+        int received = 0;
+        int imported = 0;
+
+        try (MappingIterator<Book> books = reader.readValues(body)) {
+            while (true) {
+                int index = received;
+                Book book;
+                try {
+                    if (!books.hasNextValue()) {
+                        break;
+                    }
+                    received++;
+                    book = books.nextValue();
+                } catch (JsonMappingException e) {
+                    errors.add(error(index, null, "Unreadable record: " + e.getOriginalMessage()));
+                    continue;
+                } catch (StreamReadException e) {
+                    // Nothing after a syntax error can be read reliably: keep what came before and stop.
+                    received = index + 1;
+                    errors.add(error(index, null, "Malformed feed, import stopped: " + e.getOriginalMessage()));
+                    break;
+                }
+                Set<ConstraintViolation<Book>> violations = validator.validate(book);
+                if (!violations.isEmpty()) {
+                    errors.add(error(index, book.getIsbn(), violations.stream()
+                            .map(ConstraintViolation::getMessage)
+                            .sorted()
+                            .collect(Collectors.joining(", "))));
+                    continue;
+                }
+                book.setId(null);
+                book.setVersion(null);
+                chunk.add(book);
+                chunkIndexes.add(index);
+                if (chunk.size() >= chunkSize) {
+                    imported += flush(chunk, chunkIndexes, errors);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            imported += flush(chunk, chunkIndexes, errors);
+        }
+
+        return BulkImportResultDto.builder()
+                .received(received)
+                .imported(imported)
+                .errors(errors)
+                .build();
+    }
+
+    private int flush(List<Book> chunk, List<Integer> chunkIndexes, List<BulkImportErrorDto> errors) {
+        int saved;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                bookRepo.saveAllAndFlush(chunk).forEach(book -> eventPublisher.publishEvent(BookChangedEvent.saved(book)));
+                entityManager.clear();
+            });
+            saved = chunk.size();
+        } catch (DataAccessException e) {
+            // The batch was rolled back; replay it row by row to isolate the offending records.
+            saved = 0;
+            for (int i = 0; i < chunk.size(); i++) {
+                Book book = chunk.get(i);
+                book.setId(null);
+                book.setVersion(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                            eventPublisher.publishEvent(BookChangedEvent.saved(bookRepo.saveAndFlush(book))));
+                    saved++;
+                } catch (DataAccessException ex) {
+                    errors.add(error(chunkIndexes.get(i), book.getIsbn(), ex.getMostSpecificCause().getMessage()));
+                }
+            }
+        }
+        chunk.clear();
+        chunkIndexes.clear();
+        return saved;
+    }
+
+    private BulkImportErrorDto error(int index, String isbn, String message) {
+        return BulkImportErrorDto.builder()
+                .index(index)
+                .isbn(isbn)
+                .message(message)
+                .build();
+    }
+}
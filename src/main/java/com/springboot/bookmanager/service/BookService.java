@@ -1,37 +1,300 @@
 package com.springboot.bookmanager.service;
 
+import com.springboot.bookmanager.changes.BookChangeLog;
+import com.springboot.bookmanager.config.CacheConfig;
+import com.springboot.bookmanager.dto.BookBatchDto;
+import com.springboot.bookmanager.dto.BookPatchDto;
+import com.springboot.bookmanager.dto.BookRangeFilter;
+import com.springboot.bookmanager.dto.BookView;
+import com.springboot.bookmanager.dto.PriceGrouping;
+import com.springboot.bookmanager.dto.PriceStatsDto;
+import com.springboot.bookmanager.event.BookChangedEvent;
+import com.springboot.bookmanager.exception.BookNotFoundException;
+import com.springboot.bookmanager.exception.PreconditionFailedException;
 import com.springboot.bookmanager.models.Book;
+import com.springboot.bookmanager.replicas.ReadRouting;
 import com.springboot.bookmanager.repo.BookRepo;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "bookmanager.service", histogram = true)
 public class BookService {
 
     @Autowired
     private BookRepo bookRepo;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BookChangeLog bookChangeLog;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${bookmanager.batch-get.chunk-size:500}")
+    private int batchChunkSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional
+    @CachePut(cacheNames = CacheConfig.BOOKS_CACHE, key = "#result.id")
     public Book saveBook(Book book) {
-        return bookRepo.save(book);
+        book.setId(null);
+        book.setVersion(null);
+        Book savedBook = bookRepo.save(book);
+        eventPublisher.publishEvent(BookChangedEvent.saved(savedBook));
+        return savedBook;
+    }
+
+    /**
+     * Returns the next page of books ordered by id, starting after the given id (keyset pagination).
+     */
+    @Transactional(readOnly = true)
+    public List<Book> getBooksAfter(Long after, int limit) {
+        return bookRepo.findByIdGreaterThanOrderByIdAsc(after == null ? 0L : after, Limit.of(limit));
+    }
+
+    /**
+     * Same keyset pagination as {@link #getBooksAfter(Long, int)}, but the rows are read straight into
+     * {@link BookView} records, so no entities are managed, snapshotted or dirty-checked.
+     */
+    @Transactional(readOnly = true)
+    public List<BookView> getBookViewsAfter(Long after, int limit) {
+        return bookRepo.findViewsAfter(after == null ? 0L : after, Limit.of(limit));
+    }
+
+    /**
+     * Same keyset pagination as {@link #getBooksAfter(Long, int)}, narrowed by author and/or title prefix
+     * through the indexed finders on {@link BookRepo}.
+     */
+    @Transactional(readOnly = true)
+    public List<Book> findBooks(String author, String titlePrefix, Long after, int limit) {
+        long cursor = after == null ? 0L : after;
+        if (author != null && titlePrefix != null) {
+            return bookRepo.findByAuthorAndTitleStartingWithAndIdGreaterThanOrderByIdAsc(author, titlePrefix, cursor, Limit.of(limit));
+        } else if (author != null) {
+            return bookRepo.findByAuthorAndIdGreaterThanOrderByIdAsc(author, cursor, Limit.of(limit));
+        } else if (titlePrefix != null) {
+            return bookRepo.findByTitleStartingWithAndIdGreaterThanOrderByIdAsc(titlePrefix, cursor, Limit.of(limit));
+        }
+        return getBooksAfter(after, limit);
+    }
+
+    /**
+     * Keyset page of the books within the given price and publication-date bounds.
+     */
+    @Transactional(readOnly = true)
+    public List<Book> findBooksInRange(BookRangeFilter filter, Long after, int limit) {
+        return bookRepo.findInRange(filter, after == null ? 0L : after, limit);
     }
 
-    public List<Book> getAllBooks() {
-        return bookRepo.findAll();
+    /**
+     * Price statistics per author or publication year, aggregated by the database.
+     */
+    @Transactional(readOnly = true)
+    public List<PriceStatsDto> aggregatePrices(BookRangeFilter filter, PriceGrouping grouping, int limit) {
+        return bookRepo.aggregatePrices(filter, grouping, limit);
     }
 
+    /**
+     * Current validator for list responses; read it before the page so a concurrent write can only make
+     * the returned tag older than the data, never newer. With replicas both come from the same one, since
+     * a request reads from a single replica.
+     */
+    @Transactional(readOnly = true)
+    public BookChangeLog.CatalogueVersion getCatalogueVersion() {
+        return bookChangeLog.catalogueVersion();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Book> getBookByIsbn(String isbn) {
+        return bookRepo.findByIsbn(isbn);
+    }
+
+    /**
+     * Walks the whole catalogue over a JDBC cursor, detaching every row once it has been consumed
+     * so the persistence context does not grow with the table.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllBooks(Consumer<Book> consumer) {
+        try (Stream<Book> books = bookRepo.streamAllByOrderByIdAsc()) {
+            books.forEach(book -> {
+                consumer.accept(book);
+                entityManager.detach(book);
+            });
+        }
+    }
+
+    /**
+     * Read-through lookup; concurrent misses for the same id are collapsed into a single query. Entries
+     * stay cached until the next write evicts them, so they are loaded from the primary, never from a
+     * replica that may not have that write yet.
+     */
+    @Cacheable(cacheNames = CacheConfig.BOOKS_CACHE, key = "#id", sync = true)
     public Optional<Book> getBookById(Long id) {
-        return bookRepo.findById(id);
+        return ReadRouting.onPrimary(() -> bookRepo.findById(id));
+    }
+
+    /**
+     * Resolves many ids at once. Ids already in the books cache are answered from it; the rest are read
+     * with one {@code IN} query per chunk. Books come back in the order of the requested ids, duplicates
+     * collapsed.
+     * <p>
+     * The rows read here are not added to the cache: writes evict rather than replace entries, so a row
+     * read just before an update commits could be put back after the update's eviction and then served
+     * as stale until it expires.
+     */
+    @Transactional(readOnly = true)
+    public BookBatchDto getBooksByIds(Collection<Long> ids) {
+        Cache cache = cacheManager.getCache(CacheConfig.BOOKS_CACHE);
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        Map<Long, Book> found = new HashMap<>();
+        List<Long> toLoad = new ArrayList<>();
+        for (Long id : distinctIds) {
+            Book cached = cache.get(id, Book.class);
+            if (cached == null) {
+                toLoad.add(id);
+            } else {
+                found.put(id, cached);
+            }
+        }
+        // From the primary, like the cached ones, so a batch never mixes in rows older than the cache.
+        ReadRouting.onPrimary(() -> {
+            for (int from = 0; from < toLoad.size(); from += batchChunkSize) {
+                List<Long> chunk = toLoad.subList(from, Math.min(from + batchChunkSize, toLoad.size()));
+                bookRepo.findAllById(chunk).forEach(book -> found.put(book.getId(), book));
+            }
+        });
+
+        List<Book> books = new ArrayList<>(distinctIds.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : distinctIds) {
+            Book book = found.get(id);
+            if (book != null) {
+                books.add(book);
+            } else {
+                missing.add(id);
+            }
+        }
+        return BookBatchDto.builder().books(books).missing(missing).build();
+    }
+
+    /**
+     * Replaces all the fields of a book. The write is version-checked, so a concurrent update made
+     * between the read and the flush fails with an optimistic locking exception instead of being lost.
+     *
+     * @param expectedVersion if not {@code null}, the version the caller last saw
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.BOOKS_CACHE, key = "#id")
+    public Book updateBookById(Long id, Book book, Long expectedVersion) {
+        Book existingBook = bookRepo.findById(id).orElseThrow(() -> BookNotFoundException.INSTANCE);
+        if (expectedVersion != null && !expectedVersion.equals(existingBook.getVersion())) {
+            throw new PreconditionFailedException("Book has been modified since version " + expectedVersion);
+        }
+        existingBook.setTitle(book.getTitle());
+        existingBook.setAuthor(book.getAuthor());
+        existingBook.setPublishedDate(book.getPublishedDate());
+        existingBook.setIsbn(book.getIsbn());
+        existingBook.setPrice(book.getPrice());
+        Book updatedBook = bookRepo.saveAndFlush(existingBook);
+        eventPublisher.publishEvent(BookChangedEvent.saved(updatedBook));
+        return updatedBook;
+    }
+
+    /**
+     * Applies a partial update as one UPDATE of just the supplied columns, guarded by the expected
+     * version when one is given, and returns the book as it now stands.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.BOOKS_CACHE, key = "#id")
+    public Book patchBook(Long id, BookPatchDto patch, Long expectedVersion) {
+        if (bookRepo.patchBook(id, expectedVersion, patch) == 0) {
+            throw missingOrModified(id, expectedVersion);
+        }
+        Book patchedBook = bookRepo.findById(id).orElseThrow(() -> BookNotFoundException.INSTANCE);
+        eventPublisher.publishEvent(BookChangedEvent.saved(patchedBook));
+        return patchedBook;
+    }
+
+    /**
+     * Deletes the book with a single UPDATE that leaves a tombstone; the row itself is purged later by
+     * {@link BookTombstoneCompactor}, and until then the book can be restored.
+     *
+     * @param expectedVersion if not {@code null}, only delete while the book is still at this version
+     * @return {@code false} if no book with that id exists
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.BOOKS_CACHE, key = "#id")
+    public boolean deleteBook(Long id, Long expectedVersion) {
+        Date now = new Date();
+        int deleted = expectedVersion == null
+                ? bookRepo.softDeleteById(id, now)
+                : bookRepo.softDeleteByIdAndVersion(id, expectedVersion, now);
+        if (deleted == 0) {
+            if (expectedVersion != null && bookRepo.existsById(id)) {
+                throw new PreconditionFailedException("Book has been modified since version " + expectedVersion);
+            }
+            return false;
+        }
+        eventPublisher.publishEvent(BookChangedEvent.deleted(id));
+        return true;
     }
 
-    public Book updateBookById(Long id,Book book){
-        book.setId(id);
-        return bookRepo.save(book);
+    /**
+     * Brings back a deleted book whose tombstone has not been purged yet, with a new version. Fails with a
+     * {@link DataIntegrityViolationException} if another book has taken its ISBN in the meantime.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.BOOKS_CACHE, key = "#id")
+    public Book restoreBook(Long id) {
+        int restored;
+        try {
+            restored = bookRepo.restoreById(id, new Date());
+        } catch (DataIntegrityViolationException e) {
+            throw new DataIntegrityViolationException("The Book's ISBN has been taken by another Book since it was deleted", e);
+        }
+        if (restored == 0) {
+            throw BookNotFoundException.INSTANCE;
+        }
+        Book restoredBook = bookRepo.findById(id).orElseThrow(() -> BookNotFoundException.INSTANCE);
+        eventPublisher.publishEvent(BookChangedEvent.saved(restoredBook));
+        return restoredBook;
     }
 
-    public void deleteBook(Long id) {
-        bookRepo.deleteById(id);
+    // Only called once a conditional write has matched no rows, so the extra lookup stays off the happy path.
+    private RuntimeException missingOrModified(Long id, Long expectedVersion) {
+        if (expectedVersion != null && bookRepo.existsById(id)) {
+            return new PreconditionFailedException("Book has been modified since version " + expectedVersion);
+        }
+        return BookNotFoundException.INSTANCE;
     }
 }
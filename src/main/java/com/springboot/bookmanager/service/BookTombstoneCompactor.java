@@ -0,0 +1,83 @@
+package com.springboot.bookmanager.service;
+
+import com.springboot.bookmanager.repo.BookRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * Purges the tombstones left by {@link BookService#deleteBook} once they are older than
+ * {@code retention}, at the times given by the {@code schedule} cron expression (off-peak by default).
+ * Rows go in batches of {@code batch-size}, each in its own short transaction with a pause in between, so
+ * a large backlog never holds locks or a connection for long.
+ */
+@Component
+@ConditionalOnProperty(name = "bookmanager.soft-delete.compaction.enabled", havingValue = "true")
+public class BookTombstoneCompactor {
+
+    private static final Logger log = LoggerFactory.getLogger(BookTombstoneCompactor.class);
+
+    @Autowired
+    private BookRepo bookRepo;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Duration retention;
+    private final int batchSize;
+    private final Duration batchPause;
+    private final Counter purged;
+
+    public BookTombstoneCompactor(@Value("${bookmanager.soft-delete.retention}") Duration retention,
+                                  @Value("${bookmanager.soft-delete.compaction.batch-size}") int batchSize,
+                                  @Value("${bookmanager.soft-delete.compaction.batch-pause}") Duration batchPause,
+                                  MeterRegistry meterRegistry) {
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.batchPause = batchPause;
+        this.purged = Counter.builder("bookmanager.tombstones.purged")
+                .description("Soft-deleted books removed for good by the compactor")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${bookmanager.soft-delete.compaction.schedule}")
+    public void run() {
+        long started = System.nanoTime();
+        try {
+            long removed = compact();
+            log.info("Purged {} book tombstones in {} ms", removed, (System.nanoTime() - started) / 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Purges every tombstone older than the retention period.
+     *
+     * @return the number of books removed
+     */
+    public long compact() throws InterruptedException {
+        Date deletedBefore = new Date(System.currentTimeMillis() - retention.toMillis());
+        long total = 0;
+        int removed;
+        do {
+            removed = transactionTemplate.execute(status -> bookRepo.purgeDeleted(deletedBefore, batchSize));
+            total += removed;
+            purged.increment(removed);
+            if (removed == batchSize) {
+                Thread.sleep(batchPause.toMillis());
+            }
+        } while (removed == batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,179 @@
+package com.springboot.bookmanager.stats;
+
+import com.springboot.bookmanager.dto.BookRangeFilter;
+import com.springboot.bookmanager.dto.PriceStatsDto;
+import com.springboot.bookmanager.event.BookChangedEvent;
+import com.springboot.bookmanager.models.Book;
+import com.springboot.bookmanager.replicas.ReadRouting;
+import com.springboot.bookmanager.service.BookService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Columnar copy of the numeric book attributes for dashboard aggregates.
+ * <p>
+ * Prices and publication dates live in parallel primitive arrays, so an aggregate is a tight scan over
+ * a {@code double[]} and a {@code long[]} rather than a walk over entities. Rows are appended on insert
+ * and removed by moving the last row into the freed slot. The columns are loaded once the application
+ * is ready and then follow {@link BookChangedEvent}s.
+ */
+@Component
+public class BookPriceSummary {
+
+    private static final Logger log = LoggerFactory.getLogger(BookPriceSummary.class);
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    @Autowired
+    private BookService bookService;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private long[] publishedMillis = new long[INITIAL_CAPACITY];
+    private int size;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        clear();
+        // From the primary: the events that keep this up to date from now on are the primary's commits.
+        ReadRouting.onPrimary(() -> bookService.streamAllBooks(this::upsert));
+        log.info("Price summary loaded with {} books in {} ms", size, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getType() == BookChangedEvent.Type.DELETED) {
+            remove(event.getBookId());
+        } else {
+            upsert(event.getBook());
+        }
+    }
+
+    public void upsert(Book book) {
+        if (book.getPrice() == null || book.getPublishedDate() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(book.getId());
+            if (slot == null) {
+                if (size == ids.length) {
+                    grow();
+                }
+                slot = size++;
+                slots.put(book.getId(), slot);
+                ids[slot] = book.getId();
+            }
+            prices[slot] = book.getPrice();
+            publishedMillis[slot] = book.getPublishedDate().getTime();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.remove(id);
+            if (slot == null) {
+                return;
+            }
+            int last = --size;
+            if (slot != last) {
+                ids[slot] = ids[last];
+                prices[slot] = prices[last];
+                publishedMillis[slot] = publishedMillis[last];
+                slots.put(ids[slot], slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            slots.clear();
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public PriceStatsDto summarize(BookRangeFilter filter) {
+        double minPrice = filter.getMinPrice() == null ? Double.NEGATIVE_INFINITY : filter.getMinPrice();
+        double maxPrice = filter.getMaxPrice() == null ? Double.POSITIVE_INFINITY : filter.getMaxPrice();
+        long publishedFrom = filter.getPublishedFrom() == null ? Long.MIN_VALUE : filter.publishedFromMillis();
+        long publishedTo = filter.getPublishedTo() == null ? Long.MAX_VALUE : filter.publishedToExclusiveMillis();
+
+        double[] matched;
+        int count = 0;
+        double sum = 0;
+        lock.readLock().lock();
+        try {
+            matched = new double[size];
+            for (int i = 0; i < size; i++) {
+                double price = prices[i];
+                long published = publishedMillis[i];
+                if (price >= minPrice && price <= maxPrice && published >= publishedFrom && published < publishedTo) {
+                    matched[count++] = price;
+                    sum += price;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (count == 0) {
+            return PriceStatsDto.builder().count(0).build();
+        }
+        Arrays.sort(matched, 0, count);
+        return PriceStatsDto.builder()
+                .count(count)
+                .min(matched[0])
+                .max(matched[count - 1])
+                .avg(sum / count)
+                .p50(percentile(matched, count, 0.5))
+                .p90(percentile(matched, count, 0.9))
+                .p99(percentile(matched, count, 0.99))
+                .build();
+    }
+
+    // Linear interpolation between closest ranks, the same definition as SQL PERCENTILE_CONT.
+    static double percentile(double[] sorted, int count, double fraction) {
+        double position = fraction * (count - 1);
+        int lower = (int) Math.floor(position);
+        int upper = (int) Math.ceil(position);
+        return sorted[lower] + (position - lower) * (sorted[upper] - sorted[lower]);
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        publishedMillis = Arrays.copyOf(publishedMillis, capacity);
+    }
+}
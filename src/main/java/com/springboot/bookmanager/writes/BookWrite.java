@@ -0,0 +1,11 @@
+package com.springboot.bookmanager.writes;
+
+import com.springboot.bookmanager.dto.WriteTicketDto;
+import com.springboot.bookmanager.models.Book;
+
+/**
+ * A mutation waiting in the {@link BookWriteQueue}. {@code bookId} is {@code null} for creates and
+ * {@code book} is {@code null} for deletes.
+ */
+record BookWrite(long ticket, WriteTicketDto.Operation operation, Long bookId, Book book) {
+}
@@ -0,0 +1,354 @@
+package com.springboot.bookmanager.writes;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.springboot.bookmanager.config.CacheConfig;
+import com.springboot.bookmanager.dto.WriteTicketDto;
+import com.springboot.bookmanager.exception.BookNotFoundException;
+import com.springboot.bookmanager.exception.WriteQueueFullException;
+import com.springboot.bookmanager.models.Book;
+import com.springboot.bookmanager.service.BookService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind for book mutations. Requests only enqueue a {@link BookWrite} and get a ticket back; a
+ * single writer thread drains the bounded queue and commits up to {@code max-batch} writes per
+ * transaction, waiting at most {@code flush-interval} for a batch to fill. Within a batch an update
+ * that is followed by another write to the same book is dropped, and its ticket reports the outcome of
+ * the write that replaced it.
+ * <p>
+ * When the queue is full, requests wait up to {@code enqueue-timeout} for space and are then refused,
+ * so a burst slows its callers down instead of growing the heap. If a batch fails it is rolled back and
+ * replayed one write per transaction, so only the offending writes fail. Outcomes are kept for
+ * {@code ticket-retention}, and at most {@code max-tickets} of them, the oldest going first under a burst.
+ * <p>
+ * Writes go through {@link BookService}, so they are validated, logged to the change feed and evicted
+ * from the books cache like synchronous ones. Because the batch transaction encloses those calls, the
+ * touched ids are evicted once more after it ends.
+ */
+@Component
+@ConditionalOnProperty(name = "bookmanager.async-writes.enabled", havingValue = "true")
+public class BookWriteQueue implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(BookWriteQueue.class);
+
+    // Stop only after the web server has stopped taking requests, so the last accepted writes are flushed.
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final BlockingQueue<BookWrite> queue;
+    private final int maxBatch;
+    private final Duration flushInterval;
+    private final Duration enqueueTimeout;
+    private final Cache<Long, WriteTicketDto> tickets;
+    private final AtomicLong ticketSequence = new AtomicLong();
+
+    private volatile boolean stopping;
+    private Thread writer;
+    private DistributionSummary batchSizes;
+    private Counter coalesced;
+    private Counter rejected;
+
+    public BookWriteQueue(@Value("${bookmanager.async-writes.queue-capacity}") int queueCapacity,
+                          @Value("${bookmanager.async-writes.max-batch}") int maxBatch,
+                          @Value("${bookmanager.async-writes.flush-interval}") Duration flushInterval,
+                          @Value("${bookmanager.async-writes.enqueue-timeout}") Duration enqueueTimeout,
+                          @Value("${bookmanager.async-writes.ticket-retention}") Duration ticketRetention,
+                          @Value("${bookmanager.async-writes.max-tickets}") long maxTickets) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatch = maxBatch;
+        this.flushInterval = flushInterval;
+        this.enqueueTimeout = enqueueTimeout;
+        this.tickets = Caffeine.newBuilder()
+                .maximumSize(maxTickets)
+                .expireAfterWrite(ticketRetention)
+                .build();
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("bookmanager.writes.queue.depth", queue, BlockingQueue::size)
+                .description("Asynchronous writes waiting to be committed")
+                .register(meterRegistry);
+        batchSizes = DistributionSummary.builder("bookmanager.writes.batch.size")
+                .description("Writes committed per batch transaction, after coalescing")
+                .register(meterRegistry);
+        coalesced = Counter.builder("bookmanager.writes.coalesced")
+                .description("Updates dropped because a later write to the same book was in the same batch")
+                .register(meterRegistry);
+        rejected = Counter.builder("bookmanager.writes.rejected")
+                .description("Asynchronous writes refused because the queue was full")
+                .register(meterRegistry);
+    }
+
+    public WriteTicketDto submitCreate(Book book) {
+        book.setId(null);
+        book.setVersion(null);
+        return submit(WriteTicketDto.Operation.CREATE, null, book);
+    }
+
+    public WriteTicketDto submitUpdate(Long id, Book book) {
+        return submit(WriteTicketDto.Operation.UPDATE, id, book);
+    }
+
+    public WriteTicketDto submitDelete(Long id) {
+        return submit(WriteTicketDto.Operation.DELETE, id, null);
+    }
+
+    /**
+     * @return the state of the write, or empty once the ticket has expired
+     */
+    public Optional<WriteTicketDto> status(long ticket) {
+        return Optional.ofNullable(tickets.getIfPresent(ticket));
+    }
+
+    private WriteTicketDto submit(WriteTicketDto.Operation operation, Long bookId, Book book) {
+        long ticket = ticketSequence.incrementAndGet();
+        WriteTicketDto pending = WriteTicketDto.builder()
+                .ticket(ticket)
+                .operation(operation)
+                .status(WriteTicketDto.Status.PENDING)
+                .bookId(bookId)
+                .build();
+        // Registered before queueing, so the pending state can never overwrite the writer's outcome.
+        tickets.put(ticket, pending);
+        boolean queued = false;
+        if (!stopping) {
+            try {
+                queued = queue.offer(new BookWrite(ticket, operation, bookId, book), enqueueTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!queued) {
+            tickets.invalidate(ticket);
+            rejected.increment();
+            throw new WriteQueueFullException("Too many writes pending, retry later");
+        }
+        return pending;
+    }
+
+    @Override
+    public void start() {
+        stopping = false;
+        writer = Thread.ofPlatform().name("book-writer").start(this::drain);
+    }
+
+    @Override
+    public void stop() {
+        stopping = true;
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return writer != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void drain() {
+        List<BookWrite> batch = new ArrayList<>(maxBatch);
+        while (!stopping || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                // Not expected; flush what has been taken and carry on until stopped.
+                Thread.interrupted();
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            try {
+                flush(batch);
+            } catch (RuntimeException | Error e) {
+                // There is only one writer: if it died, every later write would sit in the queue until refused.
+                log.error("Failed to flush {} asynchronous writes", batch.size(), e);
+                batch.forEach(write -> complete(write, failed(write, e)));
+            }
+            batch.clear();
+        }
+    }
+
+    // Blocks briefly for a first write, then gathers more until the batch is full or the flush interval is up.
+    private void collect(List<BookWrite> batch) throws InterruptedException {
+        BookWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + flushInterval.toNanos();
+        while (batch.size() < maxBatch) {
+            queue.drainTo(batch, maxBatch - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatch || remaining <= 0 || stopping) {
+                return;
+            }
+            BookWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    void flush(List<BookWrite> batch) {
+        Map<Long, Long> supersededBy = new HashMap<>();
+        List<BookWrite> writes = coalesce(batch, supersededBy);
+        batchSizes.record(writes.size());
+        coalesced.increment(supersededBy.size());
+
+        Set<Long> touched = new HashSet<>();
+        Map<Long, WriteTicketDto> outcomes = new HashMap<>();
+        try {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        writes.forEach(write -> outcomes.put(write.ticket(), apply(write, touched))));
+            } catch (RuntimeException e) {
+                // The batch was rolled back; replay it one write per transaction to isolate the failures.
+                outcomes.clear();
+                for (BookWrite write : writes) {
+                    try {
+                        outcomes.put(write.ticket(), transactionTemplate.execute(status -> apply(write, touched)));
+                    } catch (RuntimeException ex) {
+                        outcomes.put(write.ticket(), failed(write, ex));
+                    }
+                }
+            }
+        } finally {
+            // Covers entries cached while the batch transaction was still open, including ones it rolled
+            // back, and runs even when an Error escapes to drain().
+            touched.forEach(cacheManager.getCache(CacheConfig.BOOKS_CACHE)::evict);
+        }
+
+        for (BookWrite write : batch) {
+            WriteTicketDto outcome = outcomes.get(supersededBy.getOrDefault(write.ticket(), write.ticket()));
+            complete(write, outcome.toBuilder().ticket(write.ticket()).operation(write.operation()).build());
+        }
+    }
+
+    /**
+     * Returns the writes of {@code batch} that still need to run, in order. An update followed by any
+     * later write to the same book is left out, and {@code supersededBy} maps its ticket to the ticket
+     * whose outcome it shares. Deletes are always kept, so an update queued after a delete still fails.
+     */
+    static List<BookWrite> coalesce(List<BookWrite> batch, Map<Long, Long> supersededBy) {
+        Map<Long, Long> laterTicket = new HashMap<>();
+        List<BookWrite> kept = new ArrayList<>(batch.size());
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            BookWrite write = batch.get(i);
+            Long next = write.bookId() == null ? null : laterTicket.get(write.bookId());
+            if (write.operation() == WriteTicketDto.Operation.UPDATE && next != null) {
+                supersededBy.put(write.ticket(), supersededBy.getOrDefault(next, next));
+            } else {
+                kept.add(write);
+            }
+            if (write.bookId() != null) {
+                laterTicket.put(write.bookId(), write.ticket());
+            }
+        }
+        Collections.reverse(kept);
+        return kept;
+    }
+
+    private WriteTicketDto apply(BookWrite write, Set<Long> touched) {
+        return switch (write.operation()) {
+            case CREATE -> {
+                Book saved = bookService.saveBook(write.book());
+                touched.add(saved.getId());
+                yield committed(write, saved);
+            }
+            case UPDATE -> {
+                touched.add(write.bookId());
+                yield committed(write, bookService.updateBookById(write.bookId(), write.book(), null));
+            }
+            case DELETE -> {
+                touched.add(write.bookId());
+                if (!bookService.deleteBook(write.bookId(), null)) {
+                    throw BookNotFoundException.INSTANCE;
+                }
+                yield WriteTicketDto.builder()
+                        .status(WriteTicketDto.Status.COMMITTED)
+                        .bookId(write.bookId())
+                        .build();
+            }
+        };
+    }
+
+    private WriteTicketDto committed(BookWrite write, Book book) {
+        return WriteTicketDto.builder()
+                .ticket(write.ticket())
+                .operation(write.operation())
+                .status(WriteTicketDto.Status.COMMITTED)
+                .bookId(book.getId())
+                .version(book.getVersion())
+                .build();
+    }
+
+    private WriteTicketDto failed(BookWrite write, Throwable e) {
+        String message = e instanceof DataAccessException dataAccess
+                ? dataAccess.getMostSpecificCause().getMessage()
+                : e.getMessage();
+        return WriteTicketDto.builder()
+                .ticket(write.ticket())
+                .operation(write.operation())
+                .status(WriteTicketDto.Status.FAILED)
+                .bookId(write.bookId())
+                .error(message)
+                .build();
+    }
+
+    private void complete(BookWrite write, WriteTicketDto outcome) {
+        tickets.put(write.ticket(), outcome);
+    }
+}
@@ -0,0 +1,15 @@
+CREATE SEQUENCE book_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE book (
+    id             BIGINT           NOT NULL PRIMARY KEY,
+    title          VARCHAR(255)     NOT NULL,
+    author         VARCHAR(255)     NOT NULL,
+    published_date TIMESTAMP(6)     NOT NULL,
+    isbn           VARCHAR(255)     NOT NULL,
+    price          DOUBLE PRECISION NOT NULL,
+    version        BIGINT           NOT NULL DEFAULT 0
+);
+
+CREATE UNIQUE INDEX ux_book_isbn ON book (isbn);
+CREATE INDEX ix_book_author ON book (author, id);
+CREATE INDEX ix_book_title ON book (title);
@@ -0,0 +1,17 @@
+-- Append-only log of book mutations, written in the same transaction as the mutation itself.
+-- Sequence numbers come from a single counter row: the row lock is held until the writing
+-- transaction ends, so numbers become visible in commit order and a reader never skips one.
+CREATE TABLE book_change_counter (
+    id       INT    NOT NULL PRIMARY KEY,
+    last_seq BIGINT NOT NULL
+);
+
+INSERT INTO book_change_counter (id, last_seq) VALUES (1, 0);
+
+CREATE TABLE book_change (
+    seq         BIGINT        NOT NULL PRIMARY KEY,
+    book_id     BIGINT        NOT NULL,
+    change_type VARCHAR(16)   NOT NULL,
+    changed_at  TIMESTAMP(6)  NOT NULL,
+    payload     VARCHAR(8192)
+);
@@ -0,0 +1 @@
+ALTER TABLE book ADD COLUMN last_modified TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP NOT NULL;
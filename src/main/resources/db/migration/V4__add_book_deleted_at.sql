@@ -0,0 +1,5 @@
+-- Tombstones: a deleted book keeps its row, with deleted_at set, until BookTombstoneCompactor purges it.
+-- The row keeps its ISBN in ux_book_isbn meanwhile, so a restored book can never clash with a newer one.
+ALTER TABLE book ADD COLUMN deleted_at TIMESTAMP(6);
+
+CREATE INDEX ix_book_deleted_at ON book (deleted_at);
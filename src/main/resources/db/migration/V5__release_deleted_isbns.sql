@@ -0,0 +1,8 @@
+-- ISBNs are unique among live books only, so a deleted book's ISBN can be used again straight away.
+-- live_isbn is NULL for tombstones, and NULLs never collide in a unique index. Restoring a book whose
+-- ISBN has been taken since fails on this index.
+ALTER TABLE book ADD COLUMN live_isbn VARCHAR(255) GENERATED ALWAYS AS (CASE WHEN deleted_at IS NULL THEN isbn END);
+
+DROP INDEX ux_book_isbn;
+CREATE UNIQUE INDEX ux_book_live_isbn ON book (live_isbn);
+CREATE INDEX ix_book_isbn ON book (isbn);
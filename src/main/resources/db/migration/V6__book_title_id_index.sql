@@ -0,0 +1,5 @@
+-- Title-prefix pages are keyset-paginated on id, like author pages: with id in the index the
+-- id > :after filter is applied to index entries, and a whole title's matches come out in id order.
+-- A prefix spanning several titles still has its matches sorted by id.
+DROP INDEX ix_book_title;
+CREATE INDEX ix_book_title ON book (title, id);
@@ -0,0 +1,133 @@
+package com.springboot.bookmanager.changes;
+
+import com.springboot.bookmanager.dto.BookChangeDto;
+import com.springboot.bookmanager.event.BookChangedEvent;
+import com.springboot.bookmanager.models.Book;
+import com.springboot.bookmanager.service.BookService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:changetest")
+public class BookChangeLogTest {
+
+    @Autowired
+    private BookChangeLog bookChangeLog;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    //Create Book object
+    private Book createBook(String isbn) {
+        return Book.builder()
+                .title("Test Book")
+                .author("Author")
+                .isbn(isbn)
+                .publishedDate(new Date())
+                .price(19.99)
+                .build();
+    }
+
+    @Test
+    public void testWrites_AppendChangesInOrder() {
+        long since = bookChangeLog.latestSeq();
+
+        Book saved = bookService.saveBook(createBook("9781111111111"));
+        bookService.deleteBook(saved.getId(), null);
+
+        List<BookChangeDto> changes = bookChangeLog.changesSince(since, 10);
+        assertEquals(2, changes.size());
+        assertEquals(BookChangedEvent.Type.SAVED, changes.get(0).getType());
+        assertEquals("9781111111111", changes.get(0).getBook().getIsbn());
+        assertEquals(BookChangedEvent.Type.DELETED, changes.get(1).getType());
+        assertEquals(saved.getId(), changes.get(1).getBookId());
+        assertNull(changes.get(1).getBook());
+        assertTrue(changes.get(0).getSeq() < changes.get(1).getSeq());
+        assertEquals(changes.get(1).getSeq(), bookChangeLog.latestSeq());
+    }
+
+    @Test
+    public void testRolledBackWrite_IsNotLogged() {
+        long since = bookChangeLog.latestSeq();
+        Book book = createBook("9782222222222");
+        book.setId(999L);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(BookChangedEvent.saved(book));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, bookChangeLog.changesSince(since, 10).size());
+        assertEquals(since, bookChangeLog.latestSeq());
+    }
+
+    @Test
+    public void testAppend_RequiresTransaction() {
+        assertThrows(IllegalTransactionStateException.class, () -> bookChangeLog.append(BookChangedEvent.deleted(1L)));
+    }
+
+    @Test
+    public void testTransaction_LogsItsChangesWithConsecutiveSeqs() {
+        long since = bookChangeLog.latestSeq();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (long id = 1; id <= 3; id++) {
+                eventPublisher.publishEvent(BookChangedEvent.deleted(id));
+            }
+        });
+
+        List<BookChangeDto> changes = bookChangeLog.changesSince(since, 10);
+        assertEquals(List.of(since + 1, since + 2, since + 3), changes.stream().map(BookChangeDto::getSeq).toList());
+        assertEquals(List.of(1L, 2L, 3L), changes.stream().map(BookChangeDto::getBookId).toList());
+        assertEquals(since + 3, bookChangeLog.latestSeq());
+    }
+
+    @Test
+    public void testPrune_KeepsTheLatestChange() {
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(BookChangedEvent.deleted(1L));
+            eventPublisher.publishEvent(BookChangedEvent.deleted(2L));
+        });
+        long latest = bookChangeLog.latestSeq();
+
+        transactionTemplate.executeWithoutResult(status -> bookChangeLog.prune(new Date(System.currentTimeMillis() + 60_000), 1000));
+
+        List<BookChangeDto> remaining = bookChangeLog.changesSince(0, 10);
+        assertEquals(1, remaining.size());
+        assertEquals(latest, remaining.get(0).getSeq());
+        assertEquals(latest, bookChangeLog.catalogueVersion().seq());
+    }
+
+    @Test
+    public void testCatalogueVersion_SameOnEveryNode() {
+        bookService.saveBook(createBook("9783333333333"));
+        // Another node, or this one after a restart, reading the same database.
+        BookChangeLog otherNode = new BookChangeLog();
+        ReflectionTestUtils.setField(otherNode, "jdbcTemplate", jdbcTemplate);
+
+        assertEquals(bookChangeLog.catalogueVersion().eTag(), otherNode.catalogueVersion().eTag());
+        assertEquals(bookChangeLog.latestSeq(), otherNode.catalogueVersion().seq());
+    }
+}
@@ -1,28 +1,44 @@
 package com.springboot.bookmanager.controller;
 
+import com.springboot.bookmanager.changes.BookChangeLog;
+import com.springboot.bookmanager.dto.BookBatchDto;
+import com.springboot.bookmanager.dto.BookPatchDto;
+import com.springboot.bookmanager.dto.BookView;
+import com.springboot.bookmanager.exception.PreconditionFailedException;
 import com.springboot.bookmanager.models.Book;
 import com.springboot.bookmanager.service.BookService;
-import jakarta.persistence.EntityNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class BookControllerTest {
@@ -33,9 +49,25 @@ public class BookControllerTest {
     @InjectMocks
     private BookController bookController;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(bookController, "cacheMaxAge", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(bookController, "meterRegistry", meterRegistry);
+        when(bookService.getCatalogueVersion()).thenReturn(CATALOGUE);
+    }
+
+    private static final BookChangeLog.CatalogueVersion CATALOGUE =
+            new BookChangeLog.CatalogueVersion(42L, 1_700_000_100_000L);
+
+    private ServletWebRequest listRequest(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
     }
 
     //Create Book object
@@ -68,65 +100,172 @@ public class BookControllerTest {
         Book book1 = createBook(1L, "Book One", "Author One", "9781234567890", date, 19.99);
         Book book2 = createBook(2L, "Book Two", "Author Two", "9780987654321", date, 29.99);
         List<Book> books = Arrays.asList(book1, book2);
-        when(bookService.getAllBooks()).thenReturn(books);
+        when(bookService.findBooks(null, null, null, 100)).thenReturn(books);
 
-        ResponseEntity<List<Book>> response = bookController.getAllBooks();
+        ResponseEntity<List<Book>> response = bookController.getAllBooks(null, null, null, 100, listRequest(null));
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(books, response.getBody());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.LINK));
+        assertEquals(CATALOGUE.eTag(), response.getHeaders().getETag());
+        assertEquals(CATALOGUE.lastModified(), response.getHeaders().getLastModified());
+        assertEquals("max-age=10, must-revalidate, public", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    public void testGetAllBooks_NotModified() {
+        ResponseEntity<List<Book>> response = bookController.getAllBooks(null, null, null, 100, listRequest(CATALOGUE.eTag()));
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        verify(bookService, never()).findBooks(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    public void testGetBookViews_Success() throws ParseException {
+        Date date = new SimpleDateFormat("yyyy-MM-dd").parse("2024-01-01");
+        List<BookView> views = List.of(new BookView(1L, "Book One", "Author One", date, "9781234567890", 19.99, 0L));
+        when(bookService.getBookViewsAfter(null, 100)).thenReturn(views);
+
+        ResponseEntity<List<BookView>> response = bookController.getBookViews(null, 100, listRequest(null));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(views, response.getBody());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.LINK));
+        verify(bookService, never()).findBooks(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    public void testGetBooksByIds_Success() throws ParseException {
+        Date date = new SimpleDateFormat("yyyy-MM-dd").parse("2024-01-01");
+        Book book = createBook(1L, "Book One", "Author One", "9781234567890", date, 19.99);
+        BookBatchDto batch = BookBatchDto.builder().books(List.of(book)).missing(List.of(2L)).build();
+        when(bookService.getBooksByIds(List.of(1L, 2L))).thenReturn(batch);
+
+        ResponseEntity<BookBatchDto> response = bookController.getBooksByIds(List.of(1L, 2L));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(batch, response.getBody());
+        verify(bookService, never()).getBookById(anyLong());
     }
 
     @Test
     public void testGetBookById_Success() throws Exception {
         Date date = new SimpleDateFormat("yyyy-MM-dd").parse("2024-01-01");
         Book book = createBook(1L, "Test Book", "Author", "9781234567890", date, 19.99);
+        book.setVersion(2L);
+        book.setLastModified(date);
         when(bookService.getBookById(anyLong())).thenReturn(Optional.of(book));
 
         ResponseEntity<Book> response = bookController.getBookById(1L);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(book, response.getBody());
+        assertEquals("\"2\"", response.getHeaders().getETag());
+        assertEquals(date.getTime(), response.getHeaders().getLastModified());
     }
 
     @Test
-    public void testGetBookById_Failure_NotFound() {
+    public void testGetBookById_Failure_NotFound() throws Exception {
         when(bookService.getBookById(anyLong())).thenReturn(Optional.empty());
 
-        Exception exception = assertThrows(EntityNotFoundException.class, () -> {
-            bookController.getBookById(1L);
-        });
+        ResponseEntity<Book> response = bookController.getBookById(1L);
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        // The 404 body is a problem detail, not a Book.
+        ProblemDetail problem = (ProblemDetail) ((ResponseEntity<?>) response).getBody();
+        assertEquals("Book Not Found", problem.getDetail());
+        assertEquals(404, problem.getStatus());
+        assertEquals(1, meterRegistry.get("bookmanager.errors")
+                .tags("exception", "BookNotFoundException", "status", "404").counter().count());
+    }
+
+    @Test
+    public void testGetBookByIsbn_Success() throws Exception {
+        Date date = new SimpleDateFormat("yyyy-MM-dd").parse("2024-01-01");
+        Book book = createBook(1L, "Test Book", "Author", "9781234567890", date, 19.99);
+        when(bookService.getBookByIsbn("9781234567890")).thenReturn(Optional.of(book));
 
-        assertEquals("Book Not Found", exception.getMessage());
+        ResponseEntity<Book> response = bookController.getBookByIsbn("9781234567890");
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(book, response.getBody());
+    }
+
+    @Test
+    public void testGetBookByIsbn_Failure_NotFound() {
+        when(bookService.getBookByIsbn(anyString())).thenReturn(Optional.empty());
+
+        ResponseEntity<Book> response = bookController.getBookByIsbn("9781234567890");
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
     @Test
     public void testUpdateBookById_Success() throws ParseException {
         Date date = new SimpleDateFormat("yyyy-MM-dd").parse("2024-01-01");
         Book book = createBook(1L, "Updated Book", "Updated Author", "9781234567890", date, 19.99);
-        when(bookService.updateBookById(anyLong(), any(Book.class))).thenReturn(book);
+        when(bookService.updateBookById(anyLong(), any(Book.class), any())).thenReturn(book);
 
-        ResponseEntity<Book> response = bookController.updateBookById(1L, book);
+        ResponseEntity<Book> response = bookController.updateBookById(1L, book, null);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(book, response.getBody());
     }
 
     @Test
-    public void testDeleteBook_Success() throws ParseException {
+    public void testUpdateBookById_PassesIfMatchVersion() throws ParseException {
         Date date = new SimpleDateFormat("yyyy-MM-dd").parse("2024-01-01");
-        Book book = createBook(1L, "Test Book", "Author", "9781234567890", date, 19.99);
-        when(bookService.getBookById(anyLong())).thenReturn(Optional.of(book));
-        doNothing().when(bookService).deleteBook(anyLong());
+        Book book = createBook(1L, "Updated Book", "Updated Author", "9781234567890", date, 19.99);
+        Book updatedBook = createBook(1L, "Updated Book", "Updated Author", "9781234567890", date, 19.99);
+        updatedBook.setVersion(4L);
+        when(bookService.updateBookById(1L, book, 3L)).thenReturn(updatedBook);
+
+        ResponseEntity<Book> response = bookController.updateBookById(1L, book, "\"3\"");
+        assertEquals("\"4\"", response.getHeaders().getETag());
+    }
 
-        String response = bookController.deleteBook(1L);
-        assertEquals("Book Deleted Successfully",response);
+    @Test
+    public void testUpdateBookById_Failure_WeakIfMatch() throws ParseException {
+        Date date = new SimpleDateFormat("yyyy-MM-dd").parse("2024-01-01");
+        Book book = createBook(1L, "Updated Book", "Updated Author", "9781234567890", date, 19.99);
+
+        assertThrows(PreconditionFailedException.class, () -> bookController.updateBookById(1L, book, "W/\"3\""));
+        verify(bookService, never()).updateBookById(anyLong(), any(Book.class), any());
+    }
+
+    @Test
+    public void testPatchBookById_Success() throws ParseException {
+        Date date = new SimpleDateFormat("yyyy-MM-dd").parse("2024-01-01");
+        Book patchedBook = createBook(1L, "Test Book", "Author", "9781234567890", date, 24.99);
+        patchedBook.setVersion(5L);
+        BookPatchDto patch = BookPatchDto.builder().price(24.99).build();
+        when(bookService.patchBook(1L, patch, 4L)).thenReturn(patchedBook);
+
+        ResponseEntity<Book> response = bookController.patchBookById(1L, patch, "\"4\"");
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(patchedBook, response.getBody());
+        assertEquals("\"5\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    public void testDeleteBook_Success() {
+        when(bookService.deleteBook(anyLong(), isNull())).thenReturn(true);
+
+        ResponseEntity<String> response = bookController.deleteBook(1L, null);
+        assertEquals("Book Deleted Successfully", response.getBody());
+        verify(bookService, never()).getBookById(anyLong());
     }
 
     @Test
     public void testDeleteBook_Failure_NotFound() {
-        when(bookService.getBookById(anyLong())).thenReturn(Optional.empty());
+        when(bookService.deleteBook(anyLong(), isNull())).thenReturn(false);
+
+        ResponseEntity<String> response = bookController.deleteBook(1L, null);
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        ProblemDetail problem = (ProblemDetail) ((ResponseEntity<?>) response).getBody();
+        assertEquals("Book Not Found", problem.getDetail());
+    }
 
-        Exception exception = assertThrows(EntityNotFoundException.class, () -> {
-            bookController.deleteBook(1L);
-        });
+    @Test
+    public void testRestoreBook_Success() {
+        Book restoredBook = Book.builder().id(1L).title("Test Book").author("Author").isbn("9781234567890").price(19.99).version(3L).build();
+        when(bookService.restoreBook(1L)).thenReturn(restoredBook);
 
-        assertEquals("Book Not Found", exception.getMessage());
+        ResponseEntity<Book> response = bookController.restoreBook(1L);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(restoredBook, response.getBody());
+        assertEquals("\"3\"", response.getHeaders().getETag());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,52 @@
+package com.springboot.bookmanager.exception;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class GlobalExceptionHandlerTest {
+
+    private MeterRegistry meterRegistry;
+    private GlobalExceptionHandler globalExceptionHandler;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        globalExceptionHandler = new GlobalExceptionHandler();
+        ReflectionTestUtils.setField(globalExceptionHandler, "meterRegistry", meterRegistry);
+    }
+
+    @Test
+    public void testHandleEntityNotFound_ProblemDetail() {
+        ResponseEntity<ProblemDetail> response = globalExceptionHandler.handleEntityNotFound(BookNotFoundException.INSTANCE);
+        globalExceptionHandler.handleEntityNotFound(BookNotFoundException.INSTANCE);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("Entity not found", response.getBody().getTitle());
+        assertEquals("Book Not Found", response.getBody().getDetail());
+        assertEquals(2.0, meterRegistry.get("bookmanager.errors")
+                .tags("exception", "BookNotFoundException", "status", "404").counter().count());
+    }
+
+    @Test
+    public void testBookNotFoundException_IsStackless() {
+        assertEquals(0, BookNotFoundException.INSTANCE.getStackTrace().length);
+    }
+
+    @Test
+    public void testTimestamp_SharedWithinSecond() {
+        String first = Problems.timestamp(1_700_000_000_100L);
+        assertSame(first, Problems.timestamp(1_700_000_000_900L));
+        assertEquals("2023-11-14T22:13:20Z", first);
+        assertNotEquals(first, Problems.timestamp(1_700_000_001_000L));
+    }
+}
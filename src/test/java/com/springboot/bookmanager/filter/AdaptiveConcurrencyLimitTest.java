@@ -0,0 +1,61 @@
+package com.springboot.bookmanager.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    private static final Duration TARGET = Duration.ofMillis(100);
+
+    @Test
+    public void testTryAcquire_RejectsBeyondLimit() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 4, TARGET);
+
+        assertTrue(limit.tryAcquire(Duration.ZERO));
+        assertTrue(limit.tryAcquire(Duration.ZERO));
+        assertFalse(limit.tryAcquire(Duration.ZERO));
+        assertEquals(2, limit.getInFlight());
+    }
+
+    @Test
+    public void testRelease_FastRequestsUnderLoadRaiseLimit() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 4, TARGET);
+
+        for (int i = 0; i < 2; i++) {
+            limit.tryAcquire(Duration.ZERO);
+            limit.tryAcquire(Duration.ZERO);
+            limit.release(TimeUnit.MILLISECONDS.toNanos(5), false);
+            limit.release(TimeUnit.MILLISECONDS.toNanos(5), false);
+        }
+        assertEquals(3, limit.getLimit());
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limit.tryAcquire(Duration.ZERO));
+        }
+        assertFalse(limit.tryAcquire(Duration.ZERO));
+    }
+
+    @Test
+    public void testDecrease_BacksOffOncePerTargetInterval() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 40, TARGET);
+        long now = System.nanoTime() + TARGET.toNanos();
+
+        limit.decrease(now);
+        limit.decrease(now + 1);
+        assertEquals(18, limit.getLimit());
+
+        limit.decrease(now + TARGET.toNanos());
+        assertEquals(16, limit.getLimit());
+    }
+
+    @Test
+    public void testConstructor_RejectsInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(8, 4, 2, TARGET));
+    }
+}
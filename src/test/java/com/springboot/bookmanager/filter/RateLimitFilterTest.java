@@ -0,0 +1,23 @@
+package com.springboot.bookmanager.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RateLimitFilterTest {
+
+    @Test
+    public void testClassify_ByMethod() {
+        assertEquals(RateLimitFilter.EndpointClass.READ, RateLimitFilter.classify(new MockHttpServletRequest("GET", "/api/books")));
+        assertEquals(RateLimitFilter.EndpointClass.READ, RateLimitFilter.classify(new MockHttpServletRequest("HEAD", "/api/books/1")));
+        assertEquals(RateLimitFilter.EndpointClass.WRITE, RateLimitFilter.classify(new MockHttpServletRequest("POST", "/api/books")));
+        assertEquals(RateLimitFilter.EndpointClass.WRITE, RateLimitFilter.classify(new MockHttpServletRequest("DELETE", "/api/books/1")));
+    }
+
+    @Test
+    public void testClassify_BatchGetIsRead() {
+        assertEquals(RateLimitFilter.EndpointClass.READ,
+                RateLimitFilter.classify(new MockHttpServletRequest("POST", "/api/books/batch-get")));
+    }
+}
@@ -0,0 +1,94 @@
+package com.springboot.bookmanager.replicas;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class ReplicaSetTest {
+
+    private ReplicaSet replicaSet;
+
+    @BeforeEach
+    public void setUp() {
+        replicaSet = new ReplicaSet(mock(DataSource.class), List.of(mock(DataSource.class), mock(DataSource.class)),
+                Duration.ofSeconds(2), Duration.ofMillis(500));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ReadRouting.endRequest();
+    }
+
+    @Test
+    public void testChoose_UncheckedReplicasAreNotUsed() {
+        assertEquals(ReadRouting.PRIMARY, replicaSet.choose(0));
+    }
+
+    @Test
+    public void testChoose_RoundRobinAcrossCaughtUpReplicas() {
+        replicaSet.update(0, 10, 0);
+        replicaSet.update(1, 10, 0);
+
+        Set<Integer> chosen = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            chosen.add(replicaSet.choose(0));
+        }
+        assertEquals(Set.of(0, 1), chosen);
+    }
+
+    @Test
+    public void testChoose_SkipsLaggingReplica() {
+        replicaSet.update(0, 5, 3000);
+        replicaSet.update(1, 9, 1500);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(1, replicaSet.choose(0));
+        }
+        assertEquals(1.5, replicaSet.lagSeconds(1));
+    }
+
+    @Test
+    public void testChoose_RequiresCallersLastWrite() {
+        replicaSet.update(0, 10, 0);
+        replicaSet.update(1, 12, 0);
+
+        assertEquals(1, replicaSet.choose(11));
+        assertEquals(ReadRouting.PRIMARY, replicaSet.choose(13));
+    }
+
+    @Test
+    public void testRoute_PinsRequestUntilItWrites() {
+        replicaSet.update(0, 10, 0);
+        replicaSet.update(1, 12, 0);
+        ReadRouting.beginRequest(0);
+
+        int first = ReadRouting.route(replicaSet);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(first, ReadRouting.route(replicaSet));
+        }
+
+        ReadRouting.wrote(11);
+        assertEquals(1, ReadRouting.route(replicaSet));
+        ReadRouting.wrote(13);
+        assertEquals(ReadRouting.PRIMARY, ReadRouting.route(replicaSet));
+    }
+
+    @Test
+    public void testRoute_OnPrimary() {
+        replicaSet.update(0, 10, 0);
+        replicaSet.update(1, 10, 0);
+
+        assertEquals(ReadRouting.PRIMARY, (int) ReadRouting.onPrimary(() -> ReadRouting.route(replicaSet)));
+        assertTrue(ReadRouting.route(replicaSet) >= 0);
+    }
+}
@@ -0,0 +1,85 @@
+package com.springboot.bookmanager.search;
+
+import com.springboot.bookmanager.dto.SearchResultDto;
+import com.springboot.bookmanager.event.BookChangedEvent;
+import com.springboot.bookmanager.models.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BookSearchIndexTest {
+
+    private BookSearchIndex bookSearchIndex;
+
+    @BeforeEach
+    public void setUp() {
+        bookSearchIndex = new BookSearchIndex();
+        ReflectionTestUtils.setField(bookSearchIndex, "maxDocuments", 3);
+        bookSearchIndex.index(createBook(1L, "The Hobbit", "J. R. R. Tolkien"));
+        bookSearchIndex.index(createBook(2L, "The Lord of the Rings", "J. R. R. Tolkien"));
+        bookSearchIndex.index(createBook(3L, "Tolkien: A Biography", "Humphrey Carpenter"));
+    }
+
+    //Create Book object
+    private Book createBook(Long id, String title, String author) {
+        return Book.builder()
+                .id(id)
+                .title(title)
+                .author(author)
+                .build();
+    }
+
+    private List<Long> ids(SearchResultDto result) {
+        return result.getHits().stream().map(hit -> hit.getId()).toList();
+    }
+
+    @Test
+    public void testSearch_PrefixAcrossTitleAndAuthor() {
+        SearchResultDto result = bookSearchIndex.search("tolk", 0, 10);
+        assertEquals(3, result.getTotal());
+        // The title match outranks the two author matches.
+        assertEquals(3L, ids(result).get(0));
+    }
+
+    @Test
+    public void testSearch_AllTokensMustMatch() {
+        assertEquals(List.of(2L), ids(bookSearchIndex.search("lord tolkien", 0, 10)));
+    }
+
+    @Test
+    public void testSearch_ToleratesSingleTypo() {
+        assertEquals(List.of(1L), ids(bookSearchIndex.search("hobit", 0, 10)));
+    }
+
+    @Test
+    public void testSearch_Paginates() {
+        SearchResultDto result = bookSearchIndex.search("tolkien", 1, 2);
+        assertEquals(3, result.getTotal());
+        assertEquals(1, result.getHits().size());
+    }
+
+    @Test
+    public void testOnBookChanged_UpdatesAndRemoves() {
+        bookSearchIndex.onBookChanged(BookChangedEvent.saved(createBook(1L, "The Silmarillion", "J. R. R. Tolkien")));
+        assertTrue(ids(bookSearchIndex.search("hobbit", 0, 10)).isEmpty());
+        assertEquals(List.of(1L), ids(bookSearchIndex.search("silmar", 0, 10)));
+
+        bookSearchIndex.onBookChanged(BookChangedEvent.deleted(1L));
+        assertTrue(ids(bookSearchIndex.search("silmar", 0, 10)).isEmpty());
+        assertEquals(2, bookSearchIndex.stats().getDocuments());
+    }
+
+    @Test
+    public void testIndex_StopsAtMaxDocuments() {
+        bookSearchIndex.index(createBook(4L, "The Children of Hurin", "J. R. R. Tolkien"));
+        assertEquals(3, bookSearchIndex.stats().getDocuments());
+        assertEquals(1, bookSearchIndex.stats().getDroppedDocuments());
+        assertFalse(ids(bookSearchIndex.search("hurin", 0, 10)).contains(4L));
+    }
+}
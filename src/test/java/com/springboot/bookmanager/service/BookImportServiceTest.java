@@ -0,0 +1,128 @@
+package com.springboot.bookmanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.bookmanager.dto.BulkImportResultDto;
+import com.springboot.bookmanager.event.BookChangedEvent;
+import com.springboot.bookmanager.models.Book;
+import com.springboot.bookmanager.repo.BookRepo;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BookImportServiceTest {
+
+    @Mock
+    private BookRepo bookRepo;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private BookImportService bookImportService;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(bookImportService, "validator",
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(bookImportService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(bookImportService, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(bookImportService, "chunkSize", 2);
+    }
+
+    private ByteArrayInputStream feed(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testImportBooks_NdjsonWithInvalidRecord() throws Exception {
+        String ndjson = """
+                {"title":"Book One","author":"Author One","isbn":"9781234567890","publishedDate":"2024-01-01","price":19.99}
+                {"title":"Book Two","author":"Author Two","isbn":"not-an-isbn","publishedDate":"2024-01-01","price":29.99}
+                {"title":"Book Three","author":"Author Three","isbn":"9780987654321","publishedDate":"2024-01-01","price":9.99}
+                """;
+
+        BulkImportResultDto result = bookImportService.importBooks(feed(ndjson));
+        assertEquals(3, result.getReceived());
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(1, result.getErrors().get(0).getIndex());
+        verify(bookRepo, times(1)).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    public void testImportBooks_JsonArrayIsolatesFailedRow() throws Exception {
+        String json = """
+                [{"title":"Book One","author":"Author One","isbn":"9781234567890","publishedDate":"2024-01-01","price":19.99},
+                 {"title":"Book Two","author":"Author Two","isbn":"9780987654321","publishedDate":"2024-01-01","price":29.99}]
+                """;
+        when(bookRepo.saveAllAndFlush(anyList())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(bookRepo.saveAndFlush(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(bookRepo.saveAndFlush(argThat((Book book) -> "9780987654321".equals(book.getIsbn()))))
+                .thenThrow(new DataIntegrityViolationException("duplicate isbn"));
+
+        BulkImportResultDto result = bookImportService.importBooks(feed(json));
+        assertEquals(2, result.getReceived());
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getErrors().size());
+        assertEquals("9780987654321", result.getErrors().get(0).getIsbn());
+        verify(bookRepo, times(2)).saveAndFlush(any(Book.class));
+        verify(eventPublisher, times(1)).publishEvent(any(BookChangedEvent.class));
+    }
+
+    @Test
+    public void testImportCsv_ReadsHeaderNamedColumns() throws Exception {
+        String csv = """
+                title,author,isbn,publishedDate,price
+                Book One,Author One,9781234567890,2024-01-01,19.99
+                Book Two,Author Two,9780987654321,2024-01-01,
+                """;
+
+        BulkImportResultDto result = bookImportService.importCsv(feed(csv));
+        assertEquals(2, result.getReceived());
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getErrors().size());
+        assertEquals("Price cannot be null", result.getErrors().get(0).getMessage());
+        verify(bookRepo, times(1)).saveAllAndFlush(argThat((List<Book> books) ->
+                books.size() == 1 && "Book One".equals(books.get(0).getTitle()) && books.get(0).getPrice() == 19.99));
+    }
+
+    @Test
+    public void testImportBooks_StopsAtMalformedRecord() throws Exception {
+        String ndjson = """
+                {"title":"Book One","author":"Author One","isbn":"9781234567890","publishedDate":"2024-01-01","price":19.99}
+                {"title":"Book One","author":"Author One","isbn":"9781234567890","publishedDate":"2024-01-01","price":19.99}
+                {"title":"Book Two","author":"Author Two",,"isbn":"9780987654321"}
+                {"title":"Book Three","author":"Author Three","isbn":"9780987654321","publishedDate":"2024-01-01","price":9.99}
+                """;
+
+        BulkImportResultDto result = bookImportService.importBooks(feed(ndjson));
+        assertEquals(3, result.getReceived());
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(2, result.getErrors().get(0).getIndex());
+        verify(bookRepo, times(1)).saveAllAndFlush(anyList());
+    }
+}
@@ -0,0 +1,103 @@
+package com.springboot.bookmanager.service;
+
+import com.springboot.bookmanager.config.CacheConfig;
+import com.springboot.bookmanager.dto.BookBatchDto;
+import com.springboot.bookmanager.models.Book;
+import com.springboot.bookmanager.repo.BookRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+public class BookServiceCacheTest {
+
+    @MockBean
+    private BookRepo bookRepo;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager.getCache(CacheConfig.BOOKS_CACHE).clear();
+    }
+
+    @Test
+    public void testGetBookById_ServedFromCache() {
+        Book book = Book.builder().id(1L).title("Test Book").author("Author").isbn("9781234567890").price(19.99).build();
+        when(bookRepo.findById(1L)).thenReturn(Optional.of(book));
+
+        assertEquals(book, bookService.getBookById(1L).get());
+        assertEquals(book, bookService.getBookById(1L).get());
+        verify(bookRepo, times(1)).findById(1L);
+    }
+
+    @Test
+    public void testGetBookById_DoesNotCacheMiss() {
+        Book book = Book.builder().id(6L).title("Imported Book").author("Author").isbn("9781234567890").price(19.99).build();
+        when(bookRepo.findById(6L)).thenReturn(Optional.empty(), Optional.of(book));
+
+        assertEquals(Optional.empty(), bookService.getBookById(6L));
+        assertEquals(book, bookService.getBookById(6L).get());
+        verify(bookRepo, times(2)).findById(6L);
+    }
+
+    @Test
+    public void testDeleteBook_EvictsCachedEntry() {
+        Book book = Book.builder().id(2L).title("Test Book").author("Author").isbn("9781234567890").price(19.99).build();
+        when(bookRepo.findById(2L)).thenReturn(Optional.of(book), Optional.empty());
+        when(bookRepo.softDeleteById(eq(2L), any(Date.class))).thenReturn(1);
+
+        bookService.getBookById(2L);
+        bookService.deleteBook(2L, null);
+
+        assertEquals(Optional.empty(), bookService.getBookById(2L));
+        verify(bookRepo, times(2)).findById(2L);
+    }
+
+    @Test
+    public void testGetBooksByIds_MergesWithCache() {
+        Book cached = Book.builder().id(3L).title("Cached Book").author("Author").isbn("9781234567890").price(19.99).build();
+        Book stored = Book.builder().id(4L).title("Stored Book").author("Author").isbn("9780987654321").price(29.99).build();
+        when(bookRepo.findById(3L)).thenReturn(Optional.of(cached));
+        when(bookRepo.findAllById(List.of(4L, 5L))).thenReturn(List.of(stored));
+        bookService.getBookById(3L);
+
+        BookBatchDto result = bookService.getBooksByIds(List.of(4L, 3L, 5L, 4L));
+        assertEquals(List.of(stored, cached), result.getBooks());
+        assertEquals(List.of(5L), result.getMissing());
+        verify(bookRepo, times(1)).findAllById(List.of(4L, 5L));
+    }
+
+    @Test
+    public void testGetBooksByIds_DoesNotCacheRowsOverwrittenConcurrently() {
+        Book stale = Book.builder().id(7L).title("Stale Book").author("Author").isbn("9781234567890").price(19.99).build();
+        when(bookRepo.softDeleteById(eq(7L), any(Date.class))).thenReturn(1);
+        when(bookRepo.findById(7L)).thenReturn(Optional.empty());
+        // The row is read, then a delete commits and evicts on another thread before the batch read returns.
+        when(bookRepo.findAllById(List.of(7L))).thenAnswer(invocation -> {
+            Thread writer = new Thread(() -> bookService.deleteBook(7L, null));
+            writer.start();
+            writer.join();
+            return List.of(stale);
+        });
+
+        assertEquals(List.of(stale), bookService.getBooksByIds(List.of(7L)).getBooks());
+        assertEquals(Optional.empty(), bookService.getBookById(7L));
+        verify(bookRepo, times(1)).findById(7L);
+    }
+}
@@ -1,12 +1,18 @@
 package com.springboot.bookmanager.service;
 
+import com.springboot.bookmanager.dto.BookPatchDto;
+import com.springboot.bookmanager.exception.PreconditionFailedException;
 import com.springboot.bookmanager.models.Book;
 import com.springboot.bookmanager.repo.BookRepo;
+import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -17,15 +23,25 @@ import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class BookServiceTest {
 
     @Mock
     private BookRepo bookRepo;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BookService bookService;
 
@@ -63,12 +79,38 @@ public class BookServiceTest {
         Book book1 = createBook(1L, "Book One", "Author One", "9781234567890", date, 19.99);
         Book book2 = createBook(2L, "Book Two", "Author Two", "9780987654321", date, 29.99);
         List<Book> books = Arrays.asList(book1, book2);
-        when(bookRepo.findAll()).thenReturn(books);
+        when(bookRepo.findByIdGreaterThanOrderByIdAsc(eq(0L), argThat(limit -> limit.max() == 10))).thenReturn(books);
 
-        List<Book> result = bookService.getAllBooks();
+        List<Book> result = bookService.getBooksAfter(null, 10);
         assertEquals(2, result.size());
         assertEquals(books, result);
-        verify(bookRepo, times(1)).findAll();
+        verify(bookRepo, times(1)).findByIdGreaterThanOrderByIdAsc(eq(0L), argThat(limit -> limit.max() == 10));
+    }
+
+    @Test
+    public void testGetBooksAfter_UsesCursor() {
+        when(bookRepo.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class))).thenReturn(List.of());
+
+        List<Book> result = bookService.getBooksAfter(42L, 5);
+        assertEquals(0, result.size());
+        verify(bookRepo, times(1)).findByIdGreaterThanOrderByIdAsc(eq(42L), argThat(limit -> limit.max() == 5));
+    }
+
+    @Test
+    public void testFindBooks_ByAuthor() {
+        when(bookRepo.findByAuthorAndIdGreaterThanOrderByIdAsc(anyString(), anyLong(), any(Limit.class))).thenReturn(List.of());
+
+        bookService.findBooks("Author", null, 7L, 20);
+        verify(bookRepo, times(1)).findByAuthorAndIdGreaterThanOrderByIdAsc(eq("Author"), eq(7L), argThat(limit -> limit.max() == 20));
+        verify(bookRepo, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class));
+    }
+
+    @Test
+    public void testFindBooks_ByTitlePrefix() {
+        when(bookRepo.findByTitleStartingWithAndIdGreaterThanOrderByIdAsc(anyString(), anyLong(), any(Limit.class))).thenReturn(List.of());
+
+        bookService.findBooks(null, "Test", null, 20);
+        verify(bookRepo, times(1)).findByTitleStartingWithAndIdGreaterThanOrderByIdAsc(eq("Test"), eq(0L), argThat(limit -> limit.max() == 20));
     }
 
     @Test
@@ -94,22 +136,111 @@ public class BookServiceTest {
     @Test
     public void testUpdateBookById_Success() throws ParseException {
         Date date = new SimpleDateFormat("yyyy-MM-dd").parse("2024-01-01");
-        Book book = createBook(1L, "Updated Book", "Updated Author", "9781234567890", date, 19.99);
-        when(bookRepo.save(any(Book.class))).thenReturn(book);
+        Book existingBook = createBook(1L, "Test Book", "Author", "9781234567890", date, 9.99);
+        existingBook.setVersion(3L);
+        Book book = createBook(null, "Updated Book", "Updated Author", "9781234567890", date, 19.99);
+        when(bookRepo.findById(1L)).thenReturn(Optional.of(existingBook));
+        when(bookRepo.saveAndFlush(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Book updatedBook = bookService.updateBookById(1L, book, 3L);
+        assertEquals(1L, updatedBook.getId());
+        assertEquals("Updated Book", updatedBook.getTitle());
+        assertEquals(19.99, updatedBook.getPrice());
+        verify(bookRepo, times(1)).saveAndFlush(existingBook);
+    }
 
-        Book updatedBook = bookService.updateBookById(1L, book);
-        assertEquals(book, updatedBook);
-        verify(bookRepo, times(1)).save(book);
+    @Test
+    public void testUpdateBookById_Failure_StaleVersion() throws ParseException {
+        Date date = new SimpleDateFormat("yyyy-MM-dd").parse("2024-01-01");
+        Book existingBook = createBook(1L, "Test Book", "Author", "9781234567890", date, 9.99);
+        existingBook.setVersion(3L);
+        Book book = createBook(null, "Updated Book", "Updated Author", "9781234567890", date, 19.99);
+        when(bookRepo.findById(1L)).thenReturn(Optional.of(existingBook));
+
+        assertThrows(PreconditionFailedException.class, () -> bookService.updateBookById(1L, book, 2L));
+        verify(bookRepo, never()).saveAndFlush(any(Book.class));
     }
 
     @Test
-    public void testDeleteBook_Success() throws ParseException {
+    public void testPatchBook_Success() throws ParseException {
         Date date = new SimpleDateFormat("yyyy-MM-dd").parse("2024-01-01");
-        Book book = createBook(1L, "Test Book", "Author", "9781234567890", date, 19.99);
-        when(bookRepo.findById(anyLong())).thenReturn(Optional.of(book));
-        doNothing().when(bookRepo).deleteById(anyLong());
+        Book patchedBook = createBook(1L, "Test Book", "Author", "9781234567890", date, 24.99);
+        BookPatchDto patch = BookPatchDto.builder().price(24.99).build();
+        when(bookRepo.patchBook(1L, 3L, patch)).thenReturn(1);
+        when(bookRepo.findById(1L)).thenReturn(Optional.of(patchedBook));
+
+        assertEquals(patchedBook, bookService.patchBook(1L, patch, 3L));
+        verify(bookRepo, never()).save(any(Book.class));
+    }
 
-        bookService.deleteBook(1L);
-        verify(bookRepo, times(1)).deleteById(1L);
+    @Test
+    public void testPatchBook_Failure_StaleVersion() {
+        BookPatchDto patch = BookPatchDto.builder().price(24.99).build();
+        when(bookRepo.patchBook(1L, 3L, patch)).thenReturn(0);
+        when(bookRepo.existsById(1L)).thenReturn(true);
+
+        assertThrows(PreconditionFailedException.class, () -> bookService.patchBook(1L, patch, 3L));
+    }
+
+    @Test
+    public void testPatchBook_Failure_NotFound() {
+        BookPatchDto patch = BookPatchDto.builder().price(24.99).build();
+        when(bookRepo.patchBook(1L, null, patch)).thenReturn(0);
+
+        assertThrows(EntityNotFoundException.class, () -> bookService.patchBook(1L, patch, null));
+    }
+
+    @Test
+    public void testDeleteBook_Success() {
+        when(bookRepo.softDeleteById(anyLong(), any(Date.class))).thenReturn(1);
+
+        assertTrue(bookService.deleteBook(1L, null));
+        verify(bookRepo, times(1)).softDeleteById(eq(1L), any(Date.class));
+        verify(bookRepo, never()).findById(anyLong());
+    }
+
+    @Test
+    public void testDeleteBook_Failure_NotFound() {
+        when(bookRepo.softDeleteById(anyLong(), any(Date.class))).thenReturn(0);
+
+        assertFalse(bookService.deleteBook(1L, null));
+    }
+
+    @Test
+    public void testDeleteBook_Failure_StaleVersion() {
+        when(bookRepo.softDeleteByIdAndVersion(eq(1L), eq(3L), any(Date.class))).thenReturn(0);
+        when(bookRepo.existsById(1L)).thenReturn(true);
+
+        assertThrows(PreconditionFailedException.class, () -> bookService.deleteBook(1L, 3L));
+    }
+
+    @Test
+    public void testRestoreBook_Success() {
+        Book book = createBook(1L, "Test Book", "Author", "9781234567890", new Date(), 19.99);
+        when(bookRepo.restoreById(eq(1L), any(Date.class))).thenReturn(1);
+        when(bookRepo.findById(1L)).thenReturn(Optional.of(book));
+
+        assertEquals(book, bookService.restoreBook(1L));
+        verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    public void testRestoreBook_Failure_NoTombstone() {
+        when(bookRepo.restoreById(eq(1L), any(Date.class))).thenReturn(0);
+
+        assertThrows(EntityNotFoundException.class, () -> bookService.restoreBook(1L));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    public void testRestoreBook_Failure_IsbnReused() {
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("ux_book_live_isbn");
+        when(bookRepo.restoreById(eq(1L), any(Date.class))).thenThrow(violation);
+
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class,
+                () -> bookService.restoreBook(1L));
+        assertEquals("The Book's ISBN has been taken by another Book since it was deleted", exception.getMessage());
+        assertSame(violation, exception.getCause());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,52 @@
+package com.springboot.bookmanager.service;
+
+import com.springboot.bookmanager.dto.SnapshotDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:snapshottest")
+public class BookSnapshotServiceTest {
+
+    @Autowired
+    private BookSnapshotService bookSnapshotService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path snapshotDir;
+
+    @Test
+    public void testSnapshotAndRestore_RoundTrip() {
+        ReflectionTestUtils.setField(bookSnapshotService, "snapshotDirectory", snapshotDir.toString());
+        jdbcTemplate.update("INSERT INTO book (id, title, author, published_date, isbn, price, version, last_modified) VALUES "
+                + "(1, 'Book One', 'Author One', TIMESTAMP '2024-01-01 00:00:00', '9781234567890', 19.99, 0, TIMESTAMP '2024-02-01 00:00:00'), "
+                + "(2, 'Book Two', 'Author Two', TIMESTAMP '2024-01-01 00:00:00', '9780987654321', 29.99, 3, TIMESTAMP '2024-02-03 04:05:06.123456')");
+
+        SnapshotDto snapshot = bookSnapshotService.createSnapshot();
+        assertEquals(2, snapshot.getRows());
+        assertTrue(snapshot.getBytes() > 0);
+
+        jdbcTemplate.update("DELETE FROM book");
+        assertEquals(2, bookSnapshotService.restoreLatestIfEmpty());
+        assertEquals(29.99, jdbcTemplate.queryForObject("SELECT price FROM book WHERE id = 2", Double.class));
+        assertEquals(3L, jdbcTemplate.queryForObject("SELECT version FROM book WHERE id = 2", Long.class));
+        // Conditional GETs compare against last_modified, so a restore must not reset it.
+        assertEquals(Timestamp.valueOf("2024-02-03 04:05:06.123456"),
+                jdbcTemplate.queryForObject("SELECT last_modified FROM book WHERE id = 2", Timestamp.class));
+        assertTrue(jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR book_seq", Long.class) > 2);
+
+        // A populated table is never overwritten.
+        assertEquals(0, bookSnapshotService.restoreLatestIfEmpty());
+    }
+}
@@ -0,0 +1,81 @@
+package com.springboot.bookmanager.stats;
+
+import com.springboot.bookmanager.dto.BookRangeFilter;
+import com.springboot.bookmanager.dto.PriceStatsDto;
+import com.springboot.bookmanager.event.BookChangedEvent;
+import com.springboot.bookmanager.models.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class BookPriceSummaryTest {
+
+    private BookPriceSummary bookPriceSummary;
+
+    @BeforeEach
+    public void setUp() {
+        bookPriceSummary = new BookPriceSummary();
+        bookPriceSummary.upsert(createBook(1L, 10.0, "2014-06-01"));
+        bookPriceSummary.upsert(createBook(2L, 20.0, "2016-03-15"));
+        bookPriceSummary.upsert(createBook(3L, 30.0, "2018-11-30"));
+        bookPriceSummary.upsert(createBook(4L, 40.0, "2020-01-01"));
+    }
+
+    //Create Book object
+    private Book createBook(Long id, Double price, String publishedDate) {
+        return Book.builder()
+                .id(id)
+                .price(price)
+                .publishedDate(Date.from(LocalDate.parse(publishedDate).atStartOfDay(ZoneId.systemDefault()).toInstant()))
+                .build();
+    }
+
+    @Test
+    public void testSummarize_AllBooks() {
+        PriceStatsDto stats = bookPriceSummary.summarize(new BookRangeFilter());
+        assertEquals(4, stats.getCount());
+        assertEquals(10.0, stats.getMin());
+        assertEquals(40.0, stats.getMax());
+        assertEquals(25.0, stats.getAvg());
+        // Interpolated like PERCENTILE_CONT: rank 1.5 lies halfway between 20 and 30.
+        assertEquals(25.0, stats.getP50());
+        assertEquals(37.0, stats.getP90(), 1e-9);
+    }
+
+    @Test
+    public void testSummarize_PriceAndDateRange() {
+        BookRangeFilter filter = BookRangeFilter.builder()
+                .minPrice(15.0)
+                .maxPrice(40.0)
+                .publishedTo(LocalDate.parse("2018-11-30"))
+                .build();
+        PriceStatsDto stats = bookPriceSummary.summarize(filter);
+        assertEquals(2, stats.getCount());
+        assertEquals(20.0, stats.getMin());
+        assertEquals(30.0, stats.getMax());
+    }
+
+    @Test
+    public void testSummarize_NoMatches() {
+        PriceStatsDto stats = bookPriceSummary.summarize(BookRangeFilter.builder().minPrice(100.0).build());
+        assertEquals(0, stats.getCount());
+        assertNull(stats.getAvg());
+    }
+
+    @Test
+    public void testOnBookChanged_UpdatesAndRemoves() {
+        bookPriceSummary.onBookChanged(BookChangedEvent.saved(createBook(2L, 50.0, "2016-03-15")));
+        bookPriceSummary.onBookChanged(BookChangedEvent.deleted(1L));
+
+        PriceStatsDto stats = bookPriceSummary.summarize(new BookRangeFilter());
+        assertEquals(3, bookPriceSummary.size());
+        assertEquals(30.0, stats.getMin());
+        assertEquals(50.0, stats.getMax());
+    }
+}
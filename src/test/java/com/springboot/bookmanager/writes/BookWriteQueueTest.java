@@ -0,0 +1,168 @@
+package com.springboot.bookmanager.writes;
+
+import com.springboot.bookmanager.config.CacheConfig;
+import com.springboot.bookmanager.dto.WriteTicketDto;
+import com.springboot.bookmanager.exception.WriteQueueFullException;
+import com.springboot.bookmanager.models.Book;
+import com.springboot.bookmanager.service.BookService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BookWriteQueueTest {
+
+    @Mock
+    private BookService bookService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private BookWriteQueue bookWriteQueue = new BookWriteQueue(1, 10, Duration.ofMillis(10), Duration.ofMillis(1), Duration.ofMinutes(1), 1000);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(bookWriteQueue, "cacheManager", new ConcurrentMapCacheManager(CacheConfig.BOOKS_CACHE));
+        ReflectionTestUtils.setField(bookWriteQueue, "meterRegistry", new SimpleMeterRegistry());
+        bookWriteQueue.registerMetrics();
+        // The writer is not started; flush is driven directly and runs its callbacks inline.
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    private Book book(Long id, long version, String title) {
+        return Book.builder().id(id).version(version).title(title).author("Author").isbn("9781234567890").price(19.99).build();
+    }
+
+    private BookWrite update(long ticket, long bookId) {
+        return new BookWrite(ticket, WriteTicketDto.Operation.UPDATE, bookId, book(null, 0, "Update " + ticket));
+    }
+
+    private BookWrite delete(long ticket, long bookId) {
+        return new BookWrite(ticket, WriteTicketDto.Operation.DELETE, bookId, null);
+    }
+
+    @Test
+    public void testCoalesce_LaterWritesSupersedeUpdates() {
+        BookWrite create = new BookWrite(1, WriteTicketDto.Operation.CREATE, null, book(null, 0, "New"));
+        List<BookWrite> batch = List.of(update(2, 7), create, update(3, 7), update(4, 8), delete(5, 8), update(6, 8));
+        Map<Long, Long> supersededBy = new HashMap<>();
+
+        List<BookWrite> writes = BookWriteQueue.coalesce(batch, supersededBy);
+
+        assertEquals(List.of(create, batch.get(2), batch.get(4), batch.get(5)), writes);
+        assertEquals(Map.of(2L, 3L, 4L, 5L), supersededBy);
+    }
+
+    @Test
+    public void testFlush_CollapsesRepeatedUpdatesIntoOneWrite() {
+        Book updated = book(7L, 3, "Update 2");
+        when(bookService.updateBookById(eq(7L), any(Book.class), isNull())).thenReturn(updated);
+        List<BookWrite> batch = List.of(update(1, 7), update(2, 7));
+
+        bookWriteQueue.flush(batch);
+
+        verify(bookService, times(1)).updateBookById(7L, batch.get(1).book(), null);
+        for (long ticket : List.of(1L, 2L)) {
+            WriteTicketDto status = bookWriteQueue.status(ticket).orElseThrow();
+            assertEquals(WriteTicketDto.Status.COMMITTED, status.getStatus());
+            assertEquals(ticket, status.getTicket());
+            assertEquals(3L, status.getVersion());
+        }
+    }
+
+    @Test
+    public void testFlush_FailedBatchIsReplayedWriteByWrite() {
+        when(bookService.deleteBook(7L, null)).thenReturn(false);
+        when(bookService.deleteBook(8L, null)).thenReturn(true);
+
+        bookWriteQueue.flush(List.of(delete(1, 7), delete(2, 8)));
+
+        assertEquals(WriteTicketDto.Status.FAILED, bookWriteQueue.status(1).orElseThrow().getStatus());
+        assertEquals(WriteTicketDto.Status.COMMITTED, bookWriteQueue.status(2).orElseThrow().getStatus());
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    public void testSubmit_RejectsWhenQueueIsFull() {
+        bookWriteQueue.submitDelete(1L);
+
+        assertThrows(WriteQueueFullException.class, () -> bookWriteQueue.submitDelete(2L));
+        assertEquals(WriteTicketDto.Status.PENDING, bookWriteQueue.status(1).orElseThrow().getStatus());
+        assertEquals(Optional.empty(), bookWriteQueue.status(2));
+    }
+
+    @Test
+    public void testFlush_EvictsTouchedBooksWhenAnErrorEscapes() {
+        CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.BOOKS_CACHE);
+        ReflectionTestUtils.setField(bookWriteQueue, "cacheManager", cacheManager);
+        Book created = book(9L, 0, "New");
+        // Stands in for saveBook's @CachePut of a create that the failing batch then rolls back.
+        when(bookService.saveBook(any(Book.class))).thenAnswer(invocation -> {
+            cacheManager.getCache(CacheConfig.BOOKS_CACHE).put(9L, created);
+            return created;
+        });
+        when(bookService.deleteBook(8L, null)).thenThrow(new StackOverflowError());
+        BookWrite create = new BookWrite(1, WriteTicketDto.Operation.CREATE, null, book(null, 0, "New"));
+
+        assertThrows(StackOverflowError.class, () -> bookWriteQueue.flush(List.of(create, delete(2, 8))));
+        assertNull(cacheManager.getCache(CacheConfig.BOOKS_CACHE).get(9L));
+    }
+
+    @Test
+    public void testWriter_SurvivesAnErrorInABatch() throws InterruptedException {
+        when(bookService.deleteBook(7L, null)).thenThrow(new StackOverflowError());
+        when(bookService.deleteBook(8L, null)).thenReturn(true);
+        bookWriteQueue.start();
+        try {
+            long first = bookWriteQueue.submitDelete(7L).getTicket();
+            assertEquals(WriteTicketDto.Status.FAILED, awaitOutcome(first).getStatus());
+            long second = bookWriteQueue.submitDelete(8L).getTicket();
+            assertEquals(WriteTicketDto.Status.COMMITTED, awaitOutcome(second).getStatus());
+        } finally {
+            bookWriteQueue.stop();
+        }
+    }
+
+    private WriteTicketDto awaitOutcome(long ticket) throws InterruptedException {
+        for (int attempt = 0; attempt < 200; attempt++) {
+            WriteTicketDto status = bookWriteQueue.status(ticket).orElseThrow();
+            if (status.getStatus() != WriteTicketDto.Status.PENDING) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Ticket " + ticket + " is still pending");
+    }
+}